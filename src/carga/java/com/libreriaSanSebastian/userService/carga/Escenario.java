@@ -0,0 +1,204 @@
+package com.libreriaSanSebastian.userService.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.service.GeneradorDatosSinteticos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mezclas de peticiones contra {@code UsuarioController} y {@code RolController}. Cada escenario
+ * elige la operación por sorteo con los porcentajes indicados y llega en ráfagas de
+ * {@link #getRafaga()} peticiones con el mismo instante previsto.
+ */
+public enum Escenario {
+
+    /** Lecturas por clave: ID, RUT, resumen, búsqueda por nombre, rol y estadísticas. */
+    CONSULTAS(1) {
+        @Override
+        HttpRequest.Builder peticion(Contexto contexto, ThreadLocalRandom aleatorio) {
+            int sorteo = aleatorio.nextInt(100);
+            long id = contexto.usuarioAleatorio(aleatorio);
+            if (sorteo < 40) {
+                return contexto.get("/api/v1/usuarios/" + id);
+            } else if (sorteo < 60) {
+                return contexto.get("/api/v1/usuarios/rut/" + GeneradorDatosSinteticos.rut(id));
+            } else if (sorteo < 75) {
+                return contexto.get("/api/v1/usuarios/resumen/" + id);
+            } else if (sorteo < 85) {
+                String[] palabras = GeneradorDatosSinteticos.nombre(id).split(" ");
+                return contexto.get("/api/v1/usuarios/search?q="
+                        + URLEncoder.encode(palabras[0] + " " + palabras[1].substring(0, 3), StandardCharsets.UTF_8));
+            } else if (sorteo < 95) {
+                return contexto.get("/api/v1/roles/" + contexto.rolAleatorio(aleatorio));
+            }
+            return contexto.get("/api/v1/roles/stats");
+        }
+    },
+
+    /** Páginas por cursor del listado de usuarios, de los usuarios de un rol y de los roles. */
+    PAGINAS(1) {
+        @Override
+        HttpRequest.Builder peticion(Contexto contexto, ThreadLocalRandom aleatorio) {
+            int sorteo = aleatorio.nextInt(100);
+            if (sorteo < 60) {
+                return contexto.get("/api/v1/usuarios?limit=50&after=" + contexto.usuarioAleatorio(aleatorio));
+            } else if (sorteo < 85) {
+                return contexto.get("/api/v1/roles/" + contexto.rolAleatorio(aleatorio) + "/usuarios?limit=50&after="
+                        + contexto.usuarioAleatorio(aleatorio));
+            }
+            return contexto.get("/api/v1/roles?limit=20");
+        }
+    },
+
+    /** Altas individuales y en lote, y bajas de los usuarios creados por la misma prueba. */
+    ESCRITURAS(20) {
+        @Override
+        HttpRequest.Builder peticion(Contexto contexto, ThreadLocalRandom aleatorio) {
+            int sorteo = aleatorio.nextInt(100);
+            if (sorteo < 30) {
+                Long creado = contexto.creados.poll();
+                if (creado != null) {
+                    return contexto.peticion("/api/v1/usuarios/" + creado).DELETE();
+                }
+            } else if (sorteo < 40) {
+                StringBuilder lote = new StringBuilder("[");
+                for (int i = 0; i < 20; i++) {
+                    lote.append(i == 0 ? "" : ",").append(contexto.usuarioNuevo());
+                }
+                return contexto.post("/api/v1/usuarios/batch", lote.append(']').toString());
+            }
+            return contexto.post("/api/v1/usuarios", contexto.usuarioNuevo());
+        }
+
+        // Los IDs creados por lote sólo vienen en el cuerpo de la respuesta
+        @Override
+        HttpResponse.BodyHandler<?> respuesta() {
+            return HttpResponse.BodyHandlers.ofString();
+        }
+    };
+
+    private final int rafaga;
+
+    Escenario(int rafaga) {
+        this.rafaga = rafaga;
+    }
+
+    public int getRafaga() {
+        return rafaga;
+    }
+
+    abstract HttpRequest.Builder peticion(Contexto contexto, ThreadLocalRandom aleatorio);
+
+    HttpResponse.BodyHandler<?> respuesta() {
+        return HttpResponse.BodyHandlers.discarding();
+    }
+
+    /**
+     * Datos de la aplicación bajo prueba que comparten todas las peticiones de una ejecución.
+     */
+    static final class Contexto {
+
+        // Los usuarios nuevos toman RUT por sobre los del generador para no chocar con ellos
+        private static final long RUT_NUEVOS = 50_000_000L;
+        // Igual a UsuarioService.LIMITE_LOTE
+        private static final int LOTE_BAJAS = 1000;
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        private final String base;
+        private final long usuarios;
+        private final List<Long> roles;
+        private final Duration espera;
+        private final AtomicLong siguienteNuevo = new AtomicLong();
+        final Queue<Long> creados = new ConcurrentLinkedQueue<>();
+
+        Contexto(String base, long usuarios, List<Long> roles, Duration espera) {
+            this.base = base;
+            this.usuarios = usuarios;
+            this.roles = roles;
+            this.espera = espera;
+        }
+
+        long usuarioAleatorio(ThreadLocalRandom aleatorio) {
+            return 1 + aleatorio.nextLong(usuarios);
+        }
+
+        long rolAleatorio(ThreadLocalRandom aleatorio) {
+            return roles.get(aleatorio.nextInt(roles.size()));
+        }
+
+        String usuarioNuevo() {
+            long n = siguienteNuevo.incrementAndGet();
+            return "{\"nombre\":\"Carga " + n + "\",\"email\":\"carga" + n + "@correo.cl\",\"rut\":\""
+                    + Rut.de(RUT_NUEVOS + n) + "\",\"rol\":{\"id\":" + roles.get((int) (n % roles.size())) + ",\"version\":0}}";
+        }
+
+        // Los usuarios creados, uno a uno o por lote, quedan disponibles para las bajas y la limpieza final
+        void registrar(HttpResponse<?> respuesta) {
+            if (respuesta.request().uri().getPath().endsWith("/batch") && respuesta.body() instanceof String cuerpo) {
+                try {
+                    for (JsonNode creado : JSON.readTree(cuerpo).path("creados")) {
+                        creados.add(creado.path("id").asLong());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else if (respuesta.statusCode() == 201) {
+                respuesta.headers().firstValue("Location").ifPresent(ubicacion ->
+                        creados.add(Long.parseLong(ubicacion.substring(ubicacion.lastIndexOf('/') + 1))));
+            }
+        }
+
+        /**
+         * Elimina con {@code /batch/delete} los usuarios creados por la prueba que siguen en la base,
+         * para que un escenario no altere los datos de los siguientes. Devuelve cuántos se eliminaron.
+         */
+        long eliminarCreados(HttpClient cliente) throws IOException, InterruptedException {
+            List<Long> ids = new ArrayList<>();
+            for (Long id; (id = creados.poll()) != null; ) {
+                ids.add(id);
+            }
+            long eliminados = 0;
+            for (int desde = 0; desde < ids.size(); desde += LOTE_BAJAS) {
+                List<Long> lote = ids.subList(desde, Math.min(desde + LOTE_BAJAS, ids.size()));
+                HttpResponse<String> respuesta = cliente.send(
+                        post("/api/v1/usuarios/batch/delete", JSON.writeValueAsString(lote)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (respuesta.statusCode() != 200) {
+                    throw new IllegalStateException("No se pudieron eliminar los usuarios creados por la prueba: "
+                            + respuesta.statusCode() + " " + respuesta.body());
+                }
+                eliminados += JSON.readTree(respuesta.body()).path("eliminados").asLong();
+            }
+            return eliminados;
+        }
+
+        HttpRequest.Builder peticion(String ruta) {
+            return HttpRequest.newBuilder(URI.create(base + ruta)).timeout(espera);
+        }
+
+        HttpRequest.Builder get(String ruta) {
+            return peticion(ruta).header("Accept", "application/hal+json").GET();
+        }
+
+        HttpRequest.Builder post(String ruta, String json) {
+            return peticion(ruta).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json));
+        }
+    }
+}
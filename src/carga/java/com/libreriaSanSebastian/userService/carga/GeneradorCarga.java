@@ -0,0 +1,101 @@
+package com.libreriaSanSebastian.userService.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Envía un escenario a tasa de llegada fija (lazo abierto): la petición {@code n} tiene un instante
+ * previsto {@code inicio + n / tasa} y sale en ese momento aunque las anteriores no hayan respondido.
+ * La latencia se mide desde el instante previsto y no desde el envío real, de modo que si el cliente o
+ * el servidor se atrasan la espera acumulada cuenta en los percentiles (corrección de la omisión
+ * coordinada). El histograma sin corregir, medido desde el envío, se guarda para comparar.
+ */
+class GeneradorCarga {
+
+    // Latencias en microsegundos, hasta 5 minutos, con 3 dígitos significativos
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient cliente;
+    private final Escenario.Contexto contexto;
+    private final int maximoEnVuelo;
+
+    GeneradorCarga(HttpClient cliente, Escenario.Contexto contexto, int maximoEnVuelo) {
+        this.cliente = cliente;
+        this.contexto = contexto;
+        this.maximoEnVuelo = maximoEnVuelo;
+    }
+
+    ResultadoEscenario ejecutar(Escenario escenario, double tasa, long duracionSegundos) throws InterruptedException {
+        Histogram corregido = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+        Histogram sinCorregir = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+        Map<String, AtomicLong> errores = new ConcurrentHashMap<>();
+        AtomicLong exitosas = new AtomicLong();
+        AtomicLong ultimaRespuesta = new AtomicLong();
+        // Limita la memoria si el servidor deja de responder; el atraso sigue contando desde el instante previsto
+        Semaphore enVuelo = new Semaphore(maximoEnVuelo);
+
+        int rafaga = escenario.getRafaga();
+        long intervalo = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) * rafaga / tasa));
+        long inicio = System.nanoTime();
+        long fin = inicio + TimeUnit.SECONDS.toNanos(duracionSegundos);
+        long enviadas = 0;
+        for (long n = 0; ; n++) {
+            long previsto = inicio + n * intervalo;
+            if (previsto >= fin) {
+                break;
+            }
+            esperarHasta(previsto);
+            for (int i = 0; i < rafaga; i++) {
+                enVuelo.acquire();
+                long envio = System.nanoTime();
+                enviadas++;
+                cliente.sendAsync(escenario.peticion(contexto, ThreadLocalRandom.current()).build(), escenario.respuesta())
+                        .whenComplete((respuesta, error) -> {
+                            long ahora = System.nanoTime();
+                            corregido.recordValue(Math.min(LATENCIA_MAXIMA_US, (ahora - previsto) / 1000));
+                            sinCorregir.recordValue(Math.min(LATENCIA_MAXIMA_US, (ahora - envio) / 1000));
+                            ultimaRespuesta.accumulateAndGet(ahora, Math::max);
+                            try {
+                                if (error != null) {
+                                    Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                                    errores.computeIfAbsent(causa.getClass().getSimpleName(), k -> new AtomicLong()).incrementAndGet();
+                                } else if (respuesta.statusCode() >= 400) {
+                                    errores.computeIfAbsent(String.valueOf(respuesta.statusCode()), k -> new AtomicLong()).incrementAndGet();
+                                } else {
+                                    contexto.registrar(respuesta);
+                                    exitosas.incrementAndGet();
+                                }
+                            } catch (RuntimeException e) {
+                                errores.computeIfAbsent(e.getClass().getSimpleName(), k -> new AtomicLong()).incrementAndGet();
+                            } finally {
+                                enVuelo.release();
+                            }
+                        });
+            }
+        }
+        enVuelo.acquire(maximoEnVuelo);
+        enVuelo.release(maximoEnVuelo);
+
+        // Con ráfagas la última respuesta puede llegar antes del fin del intervalo medido
+        double segundos = (Math.max(fin, ultimaRespuesta.get()) - inicio) / 1e9;
+        return ResultadoEscenario.de(escenario, tasa, enviadas, exitosas.get(), errores, segundos, corregido, sinCorregir);
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.libreriaSanSebastian.userService.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libreriaSanSebastian.userService.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prueba de carga de extremo a extremo: levanta la aplicación con el perfil perf (base H2 embebida con
+ * datos sintéticos) en un puerto libre y ejecuta los escenarios pedidos, uno tras otro, con el
+ * {@link HttpClient} del JDK. Cada escenario tiene un calentamiento que no se mide.
+ * Los usuarios que crea el escenario de escrituras (también en el calentamiento) se eliminan con
+ * {@code /batch/delete} al terminar cada ejecución, así que los escenarios siguientes ven los datos
+ * sembrados. Aun así las escrituras avanzan la secuencia de IDs y las versiones: con un perfil que use
+ * una base persistente, ésta debe ser desechable.
+ *
+ * <p>Argumentos {@code clave=valor}: {@code escenarios} (consultas,paginas,escrituras), {@code tasa}
+ * (peticiones por segundo), {@code duracion} y {@code calentamiento} (segundos), {@code usuarios},
+ * {@code roles}, {@code perfiles} (perf,virtual para comparar con hilos virtuales), {@code enVuelo}
+ * (máximo de peticiones sin respuesta) y {@code salida} (archivo JSON).
+ */
+public class PruebaCarga {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>(Map.of(
+                "escenarios", "consultas,paginas,escrituras",
+                "tasa", "500",
+                "duracion", "30",
+                "calentamiento", "10",
+                "usuarios", "100000",
+                "roles", "20",
+                "perfiles", "perf",
+                "enVuelo", "2000",
+                "salida", "target/carga-resultado.json"));
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 1) {
+                throw new IllegalArgumentException("Argumento inválido (se espera clave=valor): " + arg);
+            }
+            opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        double tasa = Double.parseDouble(opciones.get("tasa"));
+        long duracion = Long.parseLong(opciones.get("duracion"));
+        long calentamiento = Long.parseLong(opciones.get("calentamiento"));
+        long usuarios = Long.parseLong(opciones.get("usuarios"));
+        // Con devtools en el classpath, el reinicio automático volvería a ejecutar este main en otro hilo
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run("--spring.profiles.active=" + opciones.get("perfiles"),
+                        "--server.port=0",
+                        "--perf.datos.usuarios=" + usuarios,
+                        "--perf.datos.roles=" + opciones.get("roles"),
+                        "--logging.level.root=WARN")) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            List<Long> roles = contexto.getBean(JdbcTemplate.class).queryForList("SELECT id FROM roles ORDER BY id", Long.class);
+            HttpClient cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Escenario.Contexto datos = new Escenario.Contexto("http://localhost:" + puerto, usuarios, roles, Duration.ofSeconds(30));
+            GeneradorCarga generador = new GeneradorCarga(cliente, datos, Integer.parseInt(opciones.get("enVuelo")));
+
+            List<ResultadoEscenario> resultados = new ArrayList<>();
+            for (String nombre : opciones.get("escenarios").split(",")) {
+                Escenario escenario = Escenario.valueOf(nombre.trim().toUpperCase(Locale.ROOT));
+                if (calentamiento > 0) {
+                    generador.ejecutar(escenario, tasa, calentamiento);
+                    datos.eliminarCreados(cliente);
+                }
+                ResultadoEscenario resultado = generador.ejecutar(escenario, tasa, duracion);
+                long eliminados = datos.eliminarCreados(cliente);
+                if (eliminados > 0) {
+                    System.out.printf(Locale.ROOT, "%-10s %d usuarios creados por la prueba eliminados%n",
+                            resultado.getEscenario(), eliminados);
+                }
+                resultados.add(resultado);
+                System.out.printf(Locale.ROOT, "%-10s %8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  errores %s%n",
+                        resultado.getEscenario(), resultado.getRendimiento(), resultado.getLatenciaMs().getP50(),
+                        resultado.getLatenciaMs().getP99(), resultado.getLatenciaMs().getP999(), resultado.getErrores());
+            }
+
+            Map<String, Object> informe = new LinkedHashMap<>();
+            informe.put("fecha", Instant.now().toString());
+            informe.put("java", System.getProperty("java.version"));
+            informe.put("perfiles", opciones.get("perfiles"));
+            informe.put("hilosVirtuales", contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+            informe.put("usuarios", usuarios);
+            informe.put("roles", roles.size());
+            informe.put("duracionSegundos", duracion);
+            informe.put("escenarios", resultados);
+            File salida = new File(opciones.get("salida"));
+            if (salida.getParentFile() != null) {
+                salida.getParentFile().mkdirs();
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(salida, informe);
+            System.out.println("Resultados en " + salida.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.libreriaSanSebastian.userService.carga;
+
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resultado de un escenario tal como se escribe en el JSON de salida. Los histogramas se incluyen
+ * completos (formato comprimido de HdrHistogram en Base64) para volver a graficarlos o sumarlos.
+ */
+@Data
+public class ResultadoEscenario {
+
+    private String escenario;
+    private double tasaObjetivo;
+    private long enviadas;
+    private long exitosas;
+    private Map<String, Long> errores;
+    private double segundos;
+    private double rendimiento;
+    private Latencias latenciaMs;
+    private Latencias latenciaSinCorregirMs;
+    private String histograma;
+    private String histogramaSinCorregir;
+
+    static ResultadoEscenario de(Escenario escenario, double tasa, long enviadas, long exitosas,
+                                 Map<String, AtomicLong> errores, double segundos,
+                                 Histogram corregido, Histogram sinCorregir) {
+        ResultadoEscenario resultado = new ResultadoEscenario();
+        resultado.escenario = escenario.name().toLowerCase();
+        resultado.tasaObjetivo = tasa;
+        resultado.enviadas = enviadas;
+        resultado.exitosas = exitosas;
+        resultado.errores = new TreeMap<>();
+        errores.forEach((tipo, cantidad) -> resultado.errores.put(tipo, cantidad.get()));
+        resultado.segundos = segundos;
+        resultado.rendimiento = exitosas / segundos;
+        resultado.latenciaMs = Latencias.de(corregido);
+        resultado.latenciaSinCorregirMs = Latencias.de(sinCorregir);
+        resultado.histograma = codificar(corregido);
+        resultado.histogramaSinCorregir = codificar(sinCorregir);
+        return resultado;
+    }
+
+    private static String codificar(Histogram histograma) {
+        ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+        int bytes = histograma.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), bytes));
+    }
+
+    @Data
+    public static class Latencias {
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double maxima;
+        private double media;
+
+        // El histograma guarda microsegundos; el informe usa milisegundos
+        static Latencias de(Histogram histograma) {
+            Latencias latencias = new Latencias();
+            latencias.p50 = histograma.getValueAtPercentile(50) / 1000.0;
+            latencias.p90 = histograma.getValueAtPercentile(90) / 1000.0;
+            latencias.p99 = histograma.getValueAtPercentile(99) / 1000.0;
+            latencias.p999 = histograma.getValueAtPercentile(99.9) / 1000.0;
+            latencias.maxima = histograma.getMaxValue() / 1000.0;
+            latencias.media = histograma.getMean() / 1000.0;
+            return latencias;
+        }
+    }
+}
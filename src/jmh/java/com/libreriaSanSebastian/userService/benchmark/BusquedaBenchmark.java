@@ -0,0 +1,44 @@
+package com.libreriaSanSebastian.userService.benchmark;
+
+import com.libreriaSanSebastian.userService.service.GeneradorDatosSinteticos;
+import com.libreriaSanSebastian.userService.service.IndiceBusquedaUsuarios;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de {@link IndiceBusquedaUsuarios#buscar} con un millón de nombres. Se mide en modo
+ * muestreo para ver el p99 de cada tipo de consulta (objetivo: bajo 10 ms). Los prefijos de una y dos
+ * letras abarcan buena parte del índice y son los que llegan al tope de candidatos puntuados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BusquedaBenchmark {
+
+    private static final int USUARIOS = 1_000_000;
+    private static final int RESULTADOS = 21;
+
+    @Param({"j", "a", "ju", "ma", "juan pe", "maria gonzalez ro", "valenzu", "gonzales"})
+    private String consulta;
+
+    private IndiceBusquedaUsuarios indice;
+
+    @Setup
+    public void setUp() {
+        indice = new IndiceBusquedaUsuarios();
+        for (int i = 0; i < USUARIOS; i++) {
+            indice.cargar((long) i + 1, GeneradorDatosSinteticos.nombre(i + 1));
+        }
+        indice.marcarListo();
+    }
+
+    @Benchmark
+    public List<Long> buscar() {
+        return indice.buscar(consulta, RESULTADOS);
+    }
+}
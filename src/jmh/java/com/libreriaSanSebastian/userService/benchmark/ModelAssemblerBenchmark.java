@@ -0,0 +1,65 @@
+package com.libreriaSanSebastian.userService.benchmark;
+
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de {@link UsuarioModelAssembler#toModel} por entidad, con y sin plantilla de enlaces.
+ * Cada invocación simula una petición que arma una página de usuarios.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelAssemblerBenchmark {
+
+    private static final int USUARIOS_POR_PETICION = 100;
+
+    @Param({"true", "false"})
+    private boolean plantilla;
+
+    private UsuarioModelAssembler assembler;
+    private List<Usuario> usuarios;
+
+    @Setup
+    public void setUp() {
+        assembler = new UsuarioModelAssembler();
+        assembler.setUsarPlantilla(plantilla);
+
+        Rol rol = new Rol(1L, "ADMIN", "Administrador");
+        usuarios = new ArrayList<>(USUARIOS_POR_PETICION);
+        for (long i = 1; i <= USUARIOS_POR_PETICION; i++) {
+            usuarios.add(new Usuario(i, "Usuario " + i, "usuario" + i + "@correo.cl", "1111111" + i, rol));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USUARIOS_POR_PETICION)
+    public void toModelPorEntidad(Blackhole bh) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+        request.setServerPort(8081);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        for (Usuario usuario : usuarios) {
+            bh.consume(assembler.toModel(usuario));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.libreriaSanSebastian.userService.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización HAL de un {@link CollectionModel} de usuarios, tal como lo escribe el listado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int usuarios;
+
+    private ObjectWriter writer;
+    private CollectionModel<EntityModel<Usuario>> coleccion;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new Jackson2HalModule());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        writer = mapper.writer();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+        request.setServerPort(8081);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        UsuarioModelAssembler assembler = new UsuarioModelAssembler();
+        Rol rol = new Rol(1L, "ADMIN", "Administrador");
+        List<EntityModel<Usuario>> modelos = new ArrayList<>(usuarios);
+        for (long i = 1; i <= usuarios; i++) {
+            modelos.add(assembler.toModel(new Usuario(i, "Usuario " + i, "usuario" + i + "@correo.cl", "1111111" + i, rol)));
+        }
+        coleccion = CollectionModel.of(modelos);
+
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] serializarColeccion() throws Exception {
+        return writer.writeValueAsBytes(coleccion);
+    }
+}
@@ -0,0 +1,108 @@
+package com.libreriaSanSebastian.userService.benchmark;
+
+import com.libreriaSanSebastian.userService.UserServiceApplication;
+import com.libreriaSanSebastian.userService.dto.BusquedaMultiple;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.GeneradorDatosSinteticos;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas de {@link UsuarioService} contra la base H2 embebida del perfil perf, con la caché de usuarios
+ * activa ({@code cacheUsuarios > 0}) o desactivada ({@code 0}). Los métodos {@code *Resumen*}
+ * leen proyecciones sin entidades; con {@code -prof gc} se compara la asignación por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+
+    private static final int USUARIOS = 10_000;
+    private static final int IDS_POR_BUSQUEDA = 20;
+
+    @Param({"10000", "0"})
+    private int cacheUsuarios;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioService usuarioService;
+    private long primerId;
+
+    @Setup
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=perf",
+                        "--perf.datos.roles=1",
+                        "--perf.datos.usuarios=" + USUARIOS,
+                        "--logging.level.root=WARN",
+                        "--cache.usuarios.max-size=" + cacheUsuarios);
+        usuarioService = contexto.getBean(UsuarioService.class);
+        primerId = usuarioService.listarPagina(null, 1).getContenido().get(0).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Usuario> buscarPorId() {
+        return usuarioService.buscarPorId(primerId + indiceAleatorio());
+    }
+
+    @Benchmark
+    public Optional<Usuario> buscarPorRut() {
+        return usuarioService.buscarPorRut(rutDe(indiceAleatorio()));
+    }
+
+    @Benchmark
+    public BusquedaMultiple<Usuario> buscarPorIds() {
+        List<Long> ids = new ArrayList<>(IDS_POR_BUSQUEDA);
+        for (int i = 0; i < IDS_POR_BUSQUEDA; i++) {
+            ids.add(primerId + indiceAleatorio());
+        }
+        return usuarioService.buscarPorIds(ids);
+    }
+
+    @Benchmark
+    public Pagina<Usuario> listarPagina() {
+        return usuarioService.listarPagina(primerId + indiceAleatorio(), Pagina.LIMITE_POR_DEFECTO);
+    }
+
+    @Benchmark
+    public Pagina<UsuarioResumen> listarResumenes() {
+        return usuarioService.listarResumenes(primerId + indiceAleatorio(), Pagina.LIMITE_POR_DEFECTO);
+    }
+
+    @Benchmark
+    public Optional<UsuarioResumen> buscarResumenPorId() {
+        return usuarioService.buscarResumenPorId(primerId + indiceAleatorio());
+    }
+
+    @Benchmark
+    public Optional<UsuarioResumen> buscarResumenPorRut() {
+        return usuarioService.buscarResumenPorRut(rutDe(indiceAleatorio()));
+    }
+
+    private static int indiceAleatorio() {
+        return ThreadLocalRandom.current().nextInt(USUARIOS);
+    }
+
+    private String rutDe(int indice) {
+        return GeneradorDatosSinteticos.rut(primerId + indice);
+    }
+}
@@ -0,0 +1,57 @@
+package com.libreriaSanSebastian.userService.assemblers;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Enlaces de un controlador resueltos una sola vez por petición. linkTo(methodOn(...)) crea
+ * un proxy y reconstruye la URI en cada llamada; aquí eso ocurre solo para la URI base y el
+ * enlace a la colección, y los enlaces de cada recurso se obtienen concatenando su ID.
+ */
+final class PlantillaEnlaces {
+
+    private final String base;
+    private final Link coleccion;
+
+    private PlantillaEnlaces(String base, Link coleccion) {
+        this.base = base;
+        this.coleccion = coleccion;
+    }
+
+    static PlantillaEnlaces de(Class<?> controlador, Supplier<Link> coleccion) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return resolver(controlador, coleccion);
+        }
+        String clave = PlantillaEnlaces.class.getName() + "." + controlador.getName();
+        Object enPeticion = atributos.getAttribute(clave, RequestAttributes.SCOPE_REQUEST);
+        if (enPeticion instanceof PlantillaEnlaces plantilla) {
+            return plantilla;
+        }
+        PlantillaEnlaces plantilla = resolver(controlador, coleccion);
+        atributos.setAttribute(clave, plantilla, RequestAttributes.SCOPE_REQUEST);
+        return plantilla;
+    }
+
+    private static PlantillaEnlaces resolver(Class<?> controlador, Supplier<Link> coleccion) {
+        return new PlantillaEnlaces(linkTo(controlador).toUri().toString(), coleccion.get());
+    }
+
+    Link recurso(Object id, LinkRelation rel) {
+        return Link.of(base + "/" + id, rel);
+    }
+
+    Link recurso(Object id, String rel) {
+        return Link.of(base + "/" + id, rel);
+    }
+
+    Link coleccion(String rel) {
+        return coleccion.withRel(rel);
+    }
+}
@@ -1,8 +1,11 @@
 package com.libreriaSanSebastian.userService.assemblers;
 
 import com.libreriaSanSebastian.userService.controller.RolController;
+import com.libreriaSanSebastian.userService.dto.RolConUsuarios;
 import com.libreriaSanSebastian.userService.model.Rol;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -11,18 +14,49 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class RolModelAssembler implements RepresentationModelAssembler<Rol, EntityModel<Rol>> {
 
+    // Con plantilla los enlaces se resuelven una vez por petición; sin ella, con linkTo(methodOn(...)) por entidad
+    @Value("${hateoas.enlaces.plantilla:true}")
+    private boolean usarPlantilla = true;
+
     @Override
     public EntityModel<Rol> toModel(Rol rol) {
+        if (!usarPlantilla) {
+            return toModelReflexivo(rol);
+        }
+        PlantillaEnlaces enlaces = PlantillaEnlaces.de(RolController.class,
+                () -> linkTo(methodOn(RolController.class).listarTodos(null, null, null)).withSelfRel());
+
+        return EntityModel.of(rol,
+                enlaces.recurso(rol.getId(), IanaLinkRelations.SELF),
+                enlaces.coleccion("roles"),
+                enlaces.recurso(rol.getId() + "/usuarios", "usuarios"),
+                enlaces.recurso(rol.getId(), "actualizar"),
+                enlaces.recurso(rol.getId(), "eliminar"));
+    }
+
+    /**
+     * Modelo de lectura: el rol con la cantidad de usuarios que lo tienen y los mismos enlaces.
+     */
+    public EntityModel<RolConUsuarios> toModel(Rol rol, long usuarioCount) {
+        return EntityModel.of(new RolConUsuarios(rol, usuarioCount), toModel(rol).getLinks());
+    }
+
+    private EntityModel<Rol> toModelReflexivo(Rol rol) {
         EntityModel<Rol> rolModel = EntityModel.of(rol,
-                linkTo(methodOn(RolController.class).obtenerPorId(rol.getId())).withSelfRel(),
-                linkTo(methodOn(RolController.class).listarTodos()).withRel("roles"));
+                linkTo(methodOn(RolController.class).obtenerPorId(rol.getId(), null)).withSelfRel(),
+                linkTo(methodOn(RolController.class).listarTodos(null, null, null)).withRel("roles"),
+                linkTo(methodOn(RolController.class).listarUsuarios(rol.getId(), null, null, null)).withRel("usuarios").expand());
 
         // Enlace para actualizar el rol
-        rolModel.add(linkTo(methodOn(RolController.class).actualizar(rol.getId(), rol)).withRel("actualizar"));
+        rolModel.add(linkTo(methodOn(RolController.class).actualizar(rol.getId(), null, rol)).withRel("actualizar"));
 
         // Enlace para eliminar el rol
-        rolModel.add(linkTo(methodOn(RolController.class).eliminar(rol.getId())).withRel("eliminar"));
+        rolModel.add(linkTo(methodOn(RolController.class).eliminar(rol.getId(), null)).withRel("eliminar").expand());
 
         return rolModel;
     }
+
+    public void setUsarPlantilla(boolean usarPlantilla) {
+        this.usarPlantilla = usarPlantilla;
+    }
 }
@@ -0,0 +1,39 @@
+package com.libreriaSanSebastian.userService.assemblers;
+
+import com.libreriaSanSebastian.userService.controller.TrabajoController;
+import com.libreriaSanSebastian.userService.controller.UsuarioController;
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Component
+public class TrabajoModelAssembler implements RepresentationModelAssembler<Trabajo, EntityModel<Trabajo>> {
+
+    @Override
+    public EntityModel<Trabajo> toModel(Trabajo trabajo) {
+        EntityModel<Trabajo> trabajoModel = EntityModel.of(trabajo,
+                linkTo(methodOn(TrabajoController.class).obtenerPorId(trabajo.getId())).withSelfRel(),
+                linkTo(methodOn(TrabajoController.class).listarRecientes()).withRel("trabajos"));
+
+        // Enlace para cancelar mientras el trabajo no termina
+        if (trabajo.isActivo()) {
+            trabajoModel.add(linkTo(methodOn(TrabajoController.class).cancelar(trabajo.getId())).withRel("cancelar"));
+        }
+
+        // Archivo generado por una exportación completada
+        if (trabajo.getTipo() == Trabajo.Tipo.EXPORTACION && trabajo.getEstado() == Trabajo.Estado.COMPLETADO) {
+            trabajoModel.add(linkTo(methodOn(TrabajoController.class).resultado(trabajo.getId())).withRel("resultado"));
+        }
+
+        // Filas rechazadas de una importación
+        if (trabajo.getReporte() != null) {
+            trabajoModel.add(linkTo(methodOn(UsuarioController.class).reporteImportacion(trabajo.getReporte()))
+                    .withRel("errores"));
+        }
+
+        return trabajoModel;
+    }
+}
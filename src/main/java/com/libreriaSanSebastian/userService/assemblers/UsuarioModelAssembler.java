@@ -2,7 +2,9 @@ package com.libreriaSanSebastian.userService.assemblers;
 
 import com.libreriaSanSebastian.userService.controller.UsuarioController;
 import com.libreriaSanSebastian.userService.model.Usuario;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -11,18 +13,40 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuario, EntityModel<Usuario>> {
 
+    // Con plantilla los enlaces se resuelven una vez por petición; sin ella, con linkTo(methodOn(...)) por entidad
+    @Value("${hateoas.enlaces.plantilla:true}")
+    private boolean usarPlantilla = true;
+
     @Override
     public EntityModel<Usuario> toModel(Usuario usuario) {
+        if (!usarPlantilla) {
+            return toModelReflexivo(usuario);
+        }
+        PlantillaEnlaces enlaces = PlantillaEnlaces.de(UsuarioController.class,
+                () -> linkTo(methodOn(UsuarioController.class).listarTodos(null, null, null)).withSelfRel());
+
+        return EntityModel.of(usuario,
+                enlaces.recurso(usuario.getId(), IanaLinkRelations.SELF),
+                enlaces.coleccion("usuarios"),
+                enlaces.recurso(usuario.getId(), "actualizar"),
+                enlaces.recurso(usuario.getId(), "eliminar"));
+    }
+
+    private EntityModel<Usuario> toModelReflexivo(Usuario usuario) {
         EntityModel<Usuario> usuarioModel = EntityModel.of(usuario,
-                linkTo(methodOn(UsuarioController.class).obtenerPorId(usuario.getId())).withSelfRel(),
-                linkTo(methodOn(UsuarioController.class).listarTodos()).withRel("usuarios"));
+                linkTo(methodOn(UsuarioController.class).obtenerPorId(usuario.getId(), null)).withSelfRel(),
+                linkTo(methodOn(UsuarioController.class).listarTodos(null, null, null)).withRel("usuarios"));
 
         // Enlace para actualizar usuario
-        usuarioModel.add(linkTo(methodOn(UsuarioController.class).actualizar(usuario.getId(), usuario)).withRel("actualizar"));
+        usuarioModel.add(linkTo(methodOn(UsuarioController.class).actualizar(usuario.getId(), null, usuario)).withRel("actualizar"));
 
         // Enlace para eliminar usuario
         usuarioModel.add(linkTo(methodOn(UsuarioController.class).eliminar(usuario.getId())).withRel("eliminar"));
 
         return usuarioModel;
     }
+
+    public void setUsarPlantilla(boolean usarPlantilla) {
+        this.usarPlantilla = usarPlantilla;
+    }
 }
@@ -0,0 +1,24 @@
+package com.libreriaSanSebastian.userService.assemblers;
+
+import com.libreriaSanSebastian.userService.controller.UsuarioController;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Component
+public class UsuarioResumenModelAssembler implements RepresentationModelAssembler<UsuarioResumen, EntityModel<UsuarioResumen>> {
+
+    @Override
+    public EntityModel<UsuarioResumen> toModel(UsuarioResumen resumen) {
+        PlantillaEnlaces enlaces = PlantillaEnlaces.de(UsuarioController.class,
+                () -> linkTo(methodOn(UsuarioController.class).listarTodos(null, null, null)).withSelfRel());
+
+        return EntityModel.of(resumen,
+                enlaces.recurso("resumen/" + resumen.getId(), IanaLinkRelations.SELF),
+                enlaces.recurso(resumen.getId(), "usuario"));
+    }
+}
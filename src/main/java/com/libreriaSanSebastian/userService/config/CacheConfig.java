@@ -0,0 +1,38 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caché en memoria (Caffeine) para los roles: la tabla es pequeña y casi no cambia,
+ * por lo que las lecturas se sirven sin ir a la base de datos.
+ * El proxy de caché envuelve al transaccional (que Spring Boot deja en LOWEST_PRECEDENCE): así los
+ * {@code @CacheEvict} de métodos {@code @Transactional} se aplican después del commit y no antes.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String ROLES = "roles";
+    public static final String ROLES_POR_NOMBRE = "rolesPorNombre";
+    public static final String ROLES_LISTA = "rolesLista";
+    public static final String ROLES_PAGINAS = "rolesPaginas";
+
+    @Value("${cache.roles.max-size:500}")
+    private long maxSizeRoles;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ROLES, ROLES_POR_NOMBRE, ROLES_LISTA, ROLES_PAGINAS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSizeRoles)
+                .recordStats());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,41 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.libreriaSanSebastian.userService.service.GeneradorDatosSinteticos;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * En el perfil perf, siembra la base embebida antes de que arranque el servidor web y de los
+ * ApplicationRunner, de modo que el índice de búsqueda se cargue con los datos generados. Después
+ * de sembrar vuelve a alinear la secuencia de IDs, que pudo alinearse antes con la tabla vacía.
+ */
+@Component
+@Profile("perf")
+public class DatosSinteticosInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private GeneradorDatosSinteticos generador;
+
+    @Autowired
+    private SecuenciaUsuariosInitializer secuenciaUsuarios;
+
+    @Value("${perf.datos.roles}")
+    private int roles;
+
+    @Value("${perf.datos.usuarios}")
+    private long usuarios;
+
+    @Value("${perf.datos.semilla}")
+    private long semilla;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (usuarios > 0) {
+            generador.generar(roles, usuarios, semilla);
+            secuenciaUsuarios.alinear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.libreriaSanSebastian.userService.service.IndiceBusquedaUsuarios;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga el índice de búsqueda por nombre leyendo la tabla en bloques ordenados por ID.
+ * Mientras no termina, las búsquedas se resuelven en la base de datos. Corre con el servidor ya
+ * atendiendo: los usuarios que se modifican o eliminan durante la carga no se sobrescriben con la fila leída.
+ */
+@Component
+public class IndiceBusquedaInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaInitializer.class);
+
+    private static final int BLOQUE = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IndiceBusquedaUsuarios indice;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        long[] ultimoId = {0};
+        int leidos;
+        do {
+            leidos = jdbcTemplate.query("SELECT id, nombre FROM usuarios WHERE id > ? ORDER BY id LIMIT " + BLOQUE,
+                    rs -> {
+                        int filas = 0;
+                        while (rs.next()) {
+                            ultimoId[0] = rs.getLong(1);
+                            indice.cargar(ultimoId[0], rs.getString(2));
+                            filas++;
+                        }
+                        return filas;
+                    }, ultimoId[0]);
+        } while (leidos == BLOQUE);
+        indice.marcarListo();
+        log.info("Índice de búsqueda cargado con {} usuarios en {} ms", indice.tamano(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
@@ -0,0 +1,133 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita las peticiones a la API que se atienden a la vez. Con hilos virtuales Tomcat ya no
+ * pone tope a la concurrencia y la espera se trasladaría al pool de conexiones; con un número
+ * de permisos igual a las conexiones que quedan libres para la API (el pool menos las que toman los
+ * trabajos en segundo plano), el exceso espera aquí un tiempo acotado y luego recibe 503.
+ * Una petición asíncrona, como la exportación en streaming, conserva su permiso hasta que termina.
+ */
+@Component
+@ConditionalOnProperty(name = "concurrencia.limite.habilitado", havingValue = "true")
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaNanos;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LimiteConcurrenciaFilter(@Value("${concurrencia.limite.permisos:10}") int permisos,
+                                    @Value("${concurrencia.limite.espera-maxima:2s}") Duration esperaMaxima) {
+        this.permisos = new Semaphore(permisos, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            rechazar(response);
+            return;
+        }
+        boolean asincrona = false;
+        try {
+            chain.doFilter(request, response);
+            asincrona = request.isAsyncStarted();
+        } finally {
+            if (asincrona) {
+                // El despacho asíncrono no vuelve a pasar por este filtro; se libera al completar
+                request.getAsyncContext().addListener(new LiberarPermiso());
+            } else {
+                permisos.release();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("concurrencia.permisos.disponibles", permisos, Semaphore::availablePermits)
+                .description("Permisos libres del límite de concurrencia de la API")
+                .register(registry);
+        Gauge.builder("concurrencia.peticiones.en.espera", permisos, Semaphore::getQueueLength)
+                .description("Peticiones esperando un permiso")
+                .register(registry);
+    }
+
+    private final class LiberarPermiso implements AsyncListener {
+
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Si la petición vuelve a iniciar modo asíncrono hay que seguir escuchando el nuevo contexto
+            event.getAsyncContext().addListener(this);
+        }
+
+        // Un timeout o error va seguido de onComplete; el permiso se devuelve una sola vez
+        private void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        }
+    }
+
+    private void rechazar(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", "El servicio está saturado, intente nuevamente"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.libreriaSanSebastian.userService.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita {@code @Timed} en los servicios. Las métricas de HTTP, Hikari, Hibernate y de los
+ * cachés las registra Spring Boot Actuator; todas se publican en /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Completa rut_numero (dejando el RUT en forma canónica) y email_normalizado en las filas creadas
+ * antes de que existieran esas columnas. Recorre la tabla por bloques de ID; los RUT inválidos y los
+ * valores que colisionan con otro usuario al normalizarse se dejan sin tocar y se informan en el log.
+ * Corre antes de que el servidor web acepte peticiones: mientras falten esas columnas, las búsquedas
+ * por RUT o email no encuentran al usuario y el 404 quedaría en el caché negativo.
+ */
+@Component
+public class NormalizacionUsuariosInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(NormalizacionUsuariosInitializer.class);
+
+    private static final int BLOQUE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        normalizar();
+    }
+
+    public void normalizar() {
+        long ultimoId = 0;
+        int normalizados = 0;
+        int omitidos = 0;
+        while (true) {
+            List<Map<String, Object>> filas = jdbcTemplate.queryForList(
+                    "SELECT id, rut, email, email_normalizado FROM usuarios"
+                            + " WHERE (rut_numero IS NULL OR email_normalizado IS NULL) AND id > ? ORDER BY id LIMIT " + BLOQUE,
+                    ultimoId);
+            if (filas.isEmpty()) {
+                break;
+            }
+            List<Object[]> cambios = new ArrayList<>();
+            for (Map<String, Object> fila : filas) {
+                long id = ((Number) fila.get("id")).longValue();
+                String rut = (String) fila.get("rut");
+                String email = (String) fila.get("email");
+                ultimoId = id;
+                Optional<Rut> normalizado = Rut.intentar(rut);
+                if (normalizado.isEmpty()) {
+                    log.warn("Usuario {} tiene un RUT inválido ({}); se deja sin normalizar", id, rut);
+                    if (fila.get("email_normalizado") != null) {
+                        omitidos++;
+                        continue;
+                    }
+                }
+                cambios.add(new Object[]{
+                        normalizado.map(Rut::toString).orElse(rut),
+                        normalizado.map(Rut::getNumero).orElse(null),
+                        Usuario.normalizarEmail(email),
+                        id});
+            }
+            int aplicados = actualizar(cambios);
+            normalizados += aplicados;
+            omitidos += cambios.size() - aplicados;
+        }
+        if (normalizados > 0 || omitidos > 0) {
+            log.info("Normalización de RUT y email: {} usuarios actualizados, {} omitidos", normalizados, omitidos);
+        }
+    }
+
+    private int actualizar(List<Object[]> cambios) {
+        String sql = "UPDATE usuarios SET rut = ?, rut_numero = ?, email_normalizado = ? WHERE id = ?";
+        if (cambios.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, cambios);
+            return cambios.size();
+        } catch (DataIntegrityViolationException e) {
+            // Dos formatos del mismo RUT o email: se reintenta fila a fila para aislar los duplicados
+            int aplicados = 0;
+            for (Object[] cambio : cambios) {
+                try {
+                    jdbcTemplate.update(sql, cambio);
+                    aplicados++;
+                } catch (DataIntegrityViolationException duplicado) {
+                    log.warn("Usuario {} repite el RUT {} o el email {} de otro usuario; se deja sin normalizar",
+                            cambio[3], cambio[0], cambio[2]);
+                }
+            }
+            return aplicados;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alinea la secuencia de IDs de usuarios con los registros existentes. Las filas creadas
+ * cuando la tabla usaba IDENTITY tienen IDs que la secuencia nueva (que parte en 1) volvería
+ * a entregar; aquí se adelanta la secuencia más allá del mayor ID y de un bloque de asignación.
+ * Corre al terminar de crear los beans, antes de que el servidor web acepte peticiones: un
+ * ApplicationRunner llegaría tarde y las primeras altas podrían recibir IDs ya usados.
+ */
+@Component
+public class SecuenciaUsuariosInitializer implements SmartInitializingSingleton {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alinear();
+    }
+
+    /**
+     * Adelanta la secuencia si hay filas con IDs que ésta todavía entregaría; no la retrocede nunca.
+     */
+    public void alinear() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM usuarios", Long.class);
+        if (maxId == null || maxId == 0) {
+            return;
+        }
+        long siguiente = maxId + Usuario.ASIGNACION_IDS + 1;
+        String producto = jdbcTemplate.execute(
+                (ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(producto)) {
+            // MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (next_val)
+            jdbcTemplate.update("UPDATE " + Usuario.SECUENCIA + " SET next_val = ? WHERE next_val < ?",
+                    siguiente, siguiente);
+        } else if ("H2".equalsIgnoreCase(producto)) {
+            Long actual = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE LOWER(SEQUENCE_NAME) = ?",
+                    Long.class, Usuario.SECUENCIA);
+            if (actual != null && actual < siguiente) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + Usuario.SECUENCIA + " RESTART WITH " + siguiente);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.libreriaSanSebastian.userService.config;
+
+import com.libreriaSanSebastian.userService.service.TrabajoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Al iniciar, vuelve a encolar los trabajos que quedaron pendientes y marca como interrumpidos
+ * los que estaban en curso cuando el servicio se detuvo.
+ */
+@Component
+public class TrabajosInitializer implements ApplicationRunner {
+
+    @Autowired
+    private TrabajoService trabajoService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        trabajoService.recuperar();
+    }
+}
@@ -0,0 +1,48 @@
+package com.libreriaSanSebastian.userService.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.libreriaSanSebastian.userService.dto.EstadisticasCache;
+import com.libreriaSanSebastian.userService.service.UsuarioCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@Tag(name = "Caché", description = "Estadísticas de los cachés en memoria del servicio")
+public class CacheController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Operation(
+        summary = "Estadísticas de caché",
+        description = "Aciertos, fallos, desalojos y tamaño de cada caché en memoria. "
+                + "El caché de usuarios se informa por tipo de clave (id, rut, nombre, email)"
+    )
+    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    @GetMapping("/stats")
+    public List<EstadisticasCache> estadisticas() {
+        List<EstadisticasCache> estadisticas = new ArrayList<>();
+        for (String nombre : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(nombre) instanceof CaffeineCache caffeineCache) {
+                Cache<Object, Object> cache = caffeineCache.getNativeCache();
+                estadisticas.add(EstadisticasCache.de(nombre, cache.stats(), cache.estimatedSize()));
+            }
+        }
+        estadisticas.addAll(usuarioCache.estadisticas());
+        return estadisticas;
+    }
+}
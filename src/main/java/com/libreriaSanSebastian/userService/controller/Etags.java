@@ -0,0 +1,120 @@
+package com.libreriaSanSebastian.userService.controller;
+
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ETags fuertes a partir de la columna {@code @Version}, calculados sin serializar la respuesta.
+ * La representación de un usuario incluye su rol, así que su ETag combina ambas versiones;
+ * el de una colección es un hash de los ETags de sus elementos y del cursor de la página siguiente.
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String de(Rol rol) {
+        return "\"r" + rol.getId() + "-" + rol.getVersion() + "\"";
+    }
+
+    // La lectura de un rol incluye usuarioCount, que cambia sin que cambie la versión del rol
+    static String de(Rol rol, long usuarioCount) {
+        return "\"r" + rol.getId() + "-" + rol.getVersion() + "-n" + usuarioCount + "\"";
+    }
+
+    static String de(Usuario usuario) {
+        Rol rol = usuario.getRol();
+        return "\"u" + usuario.getId() + "-" + usuario.getVersion()
+                + (rol == null ? "" : "-r" + rol.getId() + "-" + rol.getVersion()) + "\"";
+    }
+
+    static <T> String deColeccion(List<T> elementos, Function<T, String> etag, Object siguiente) {
+        StringBuilder firma = new StringBuilder().append(siguiente).append('|');
+        for (T elemento : elementos) {
+            firma.append(etag.apply(elemento));
+        }
+        return "\"c" + DigestUtils.md5DigestAsHex(firma.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Compara con If-None-Match, que admite una lista de ETags o {@code *} y usa comparación débil.
+     */
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evalúa If-Match, que exige comparación fuerte: sin encabezado, o con {@code *}, se cumple siempre.
+     */
+    static boolean cumple(String ifMatch, String etag) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String candidato : ifMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evalúa If-Match comparando sólo la versión del recurso, para aceptar tanto el ETag de una escritura
+     * como el de una lectura que agrega datos derivados (por ejemplo {@code "r1-2-n5"} para la versión 2).
+     */
+    static boolean cumpleVersion(String ifMatch, char tipo, Long id, Long version) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        Long indicada = version(ifMatch, tipo, id);
+        return indicada != null && indicada.equals(version);
+    }
+
+    /**
+     * Extrae la versión de un ETag emitido por {@link #de(Usuario)} o {@link #de(Rol)} para el recurso
+     * {@code tipo + id} (por ejemplo {@code "u7-3-r1-0"} da 3); null si el encabezado no trae uno.
+     */
+    static Long version(String ifMatch, char tipo, Long id) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String prefijo = "\"" + tipo + id + "-";
+        for (String candidato : ifMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith(prefijo)) {
+                int fin = prefijo.length();
+                while (fin < valor.length() && Character.isDigit(valor.charAt(fin))) {
+                    fin++;
+                }
+                if (fin > prefijo.length()) {
+                    return Long.valueOf(valor.substring(prefijo.length(), fin));
+                }
+            }
+        }
+        return null;
+    }
+
+    static <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+}
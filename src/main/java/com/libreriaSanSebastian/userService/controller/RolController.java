@@ -1,8 +1,14 @@
 package com.libreriaSanSebastian.userService.controller;
 
 import com.libreriaSanSebastian.userService.assemblers.RolModelAssembler;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.dto.EstadisticasRoles;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.RolConUsuarios;
 import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
 import com.libreriaSanSebastian.userService.service.RolService;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,9 +17,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,26 +42,77 @@ public class RolController {
     @Autowired
     private RolService rolService;
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     @Autowired
     private RolModelAssembler assembler;
 
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioModelAssembler usuarioAssembler;
+
     @Operation(
-        summary = "Listar todos los roles",
-        description = "Obtiene una lista completa de todos los roles registrados en el sistema"
-    )
-    @ApiResponse(
-        responseCode = "200",
-        description = "Lista de roles obtenida exitosamente",
-        content = @Content(mediaType = "application/json", schema = @Schema(implementation = Rol.class))
+        summary = "Listar roles paginados",
+        description = "Obtiene una página de roles ordenada por ID usando paginación por cursor. "
+                + "El enlace 'next' apunta a la página siguiente"
     )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de roles obtenida exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RolConUsuarios.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "La página no cambió desde el ETag indicado",
+            content = @Content
+        )
+    })
     @GetMapping
-    public CollectionModel<EntityModel<Rol>> listarTodos() {
-        List<EntityModel<Rol>> roles = rolService.listarTodos().stream()
-                .map(assembler::toModel)
+    public ResponseEntity<CollectionModel<EntityModel<RolConUsuarios>>> listarTodos(
+            @Parameter(description = "ID del último rol de la página anterior", example = "20")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad de roles por página (máximo " + Pagina.LIMITE_MAXIMO + ")", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<Rol> pagina = rolService.listarPagina(after, limit);
+        Map<Long, Long> conteos = rolService.contarUsuarios(pagina.getContenido().stream()
+                .map(Rol::getId)
+                .collect(Collectors.toList()));
+        String etag = Etags.deColeccion(pagina.getContenido(),
+                rol -> Etags.de(rol, conteos.getOrDefault(rol.getId(), 0L)), pagina.getSiguiente());
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return Etags.noModificado(etag);
+        }
+        List<EntityModel<RolConUsuarios>> roles = pagina.getContenido().stream()
+                .map(rol -> assembler.toModel(rol, conteos.getOrDefault(rol.getId(), 0L)))
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(roles,
-                linkTo(methodOn(RolController.class).listarTodos()).withSelfRel());
+        CollectionModel<EntityModel<RolConUsuarios>> modelo = CollectionModel.of(roles,
+                linkTo(methodOn(RolController.class).listarTodos(after, limit, null)).withSelfRel());
+        if (pagina.getSiguiente() != null) {
+            modelo.add(linkTo(methodOn(RolController.class)
+                    .listarTodos(pagina.getSiguiente(), pagina.getLimite(), null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok().eTag(etag).body(modelo);
+    }
+
+    @Operation(
+        summary = "Estadísticas de usuarios por rol",
+        description = "Cantidad de usuarios de cada rol, total de usuarios y usuarios sin rol, calculados con un "
+                + "GROUP BY en la base de datos sin leer los usuarios"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Estadísticas obtenidas exitosamente",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstadisticasRoles.class))
+    )
+    @GetMapping("/stats")
+    public EstadisticasRoles estadisticas() {
+        return rolService.estadisticas();
     }
 
     @Operation(
@@ -61,7 +123,12 @@ public class RolController {
         @ApiResponse(
             responseCode = "200",
             description = "Rol encontrado exitosamente",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Rol.class))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RolConUsuarios.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El rol no cambió desde el ETag indicado",
+            content = @Content
         ),
         @ApiResponse(
             responseCode = "404",
@@ -70,15 +137,77 @@ public class RolController {
         )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<Rol>> obtenerPorId(
+    public ResponseEntity<EntityModel<RolConUsuarios>> obtenerPorId(
             @Parameter(description = "ID único del rol", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return rolService.buscarPorId(id)
-                .map(assembler::toModel)
-                .map(ResponseEntity::ok)
+                .map(rol -> {
+                    long usuarioCount = rolService.contarUsuarios(rol.getId());
+                    String etag = Etags.de(rol, usuarioCount);
+                    if (Etags.coincide(ifNoneMatch, etag)) {
+                        return Etags.<EntityModel<RolConUsuarios>>noModificado(etag);
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(assembler.toModel(rol, usuarioCount));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(
+        summary = "Listar usuarios de un rol",
+        description = "Obtiene una página de los usuarios del rol ordenada por ID usando paginación por cursor, "
+                + "con el mismo costo en cualquier página. El enlace 'next' apunta a la página siguiente"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de usuarios obtenida exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "La página no cambió desde el ETag indicado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Rol no encontrado",
+            content = @Content
+        )
+    })
+    @GetMapping("/{id}/usuarios")
+    public ResponseEntity<CollectionModel<EntityModel<Usuario>>> listarUsuarios(
+            @Parameter(description = "ID único del rol", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ID del último usuario de la página anterior", example = "20")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad de usuarios por página (máximo " + Pagina.LIMITE_MAXIMO + ")", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (rolService.buscarPorId(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Pagina<Usuario> pagina = usuarioService.listarPorRol(id, after, limit);
+        String etag = Etags.deColeccion(pagina.getContenido(), Etags::de, pagina.getSiguiente());
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return Etags.noModificado(etag);
+        }
+        List<EntityModel<Usuario>> usuarios = pagina.getContenido().stream()
+                .map(usuarioAssembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<Usuario>> modelo = CollectionModel.of(usuarios,
+                linkTo(methodOn(RolController.class).listarUsuarios(id, after, limit, null)).withSelfRel(),
+                linkTo(methodOn(RolController.class).obtenerPorId(id, null)).withRel("rol"));
+        if (pagina.getSiguiente() != null) {
+            modelo.add(linkTo(methodOn(RolController.class)
+                    .listarUsuarios(id, pagina.getSiguiente(), pagina.getLimite(), null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok().eTag(etag).body(modelo);
+    }
+
     @Operation(
         summary = "Crear nuevo rol",
         description = "Registra un nuevo rol en el sistema"
@@ -110,7 +239,7 @@ public class RolController {
 
             return ResponseEntity
                     .status(HttpStatus.CREATED)
-                    .location(linkTo(methodOn(RolController.class).obtenerPorId(rolCreado.getId())).toUri())
+                    .location(linkTo(methodOn(RolController.class).obtenerPorId(rolCreado.getId(), null)).toUri())
                     .body(rolModel);
 
         } catch (Exception e) {
@@ -134,6 +263,16 @@ public class RolController {
             description = "Datos de entrada inválidos",
             content = @Content(mediaType = "application/json")
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Otra petición modificó el rol al mismo tiempo",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "412",
+            description = "If-Match no coincide con la versión actual",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Rol no encontrado",
@@ -144,6 +283,8 @@ public class RolController {
     public ResponseEntity<?> actualizar(
             @Parameter(description = "ID único del rol", required = true, example = "1")
             @PathVariable Long id,
+            @Parameter(description = "ETag de la versión sobre la que se hicieron los cambios")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Datos actualizados del rol", required = true)
             @RequestBody Rol rol) {
         try {
@@ -153,12 +294,83 @@ public class RolController {
             }
 
             return rolService.buscarPorId(id)
-                    .map(existente -> {
+                    .<ResponseEntity<?>>map(existente -> {
+                        if (!Etags.cumpleVersion(ifMatch, 'r', id, existente.getVersion())) {
+                            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                    .eTag(Etags.de(existente))
+                                    .body(Map.of("error", "El rol cambió desde el ETag indicado"));
+                        }
                         rol.setId(id);
+                        rol.setVersion(existente.getVersion());
                         Rol actualizado = rolService.guardar(rol);
-                        return ResponseEntity.ok(assembler.toModel(actualizado));
+                        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(assembler.toModel(actualizado));
                     })
                     .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Actualizar rol parcialmente",
+        description = "Aplica un JSON Merge Patch (RFC 7396): sólo se modifican los campos presentes, con un único "
+                + "UPDATE condicionado a la versión. La versión se indica con If-Match (ETag de una lectura anterior) "
+                + "o con el campo 'version' del cuerpo"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Rol actualizado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Rol.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Campos inválidos o no modificables",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Rol no encontrado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "La versión indicada ya no es la actual",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "428",
+            description = "Falta la versión (If-Match o campo 'version')",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> actualizarParcial(
+            @Parameter(description = "ID único del rol", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ETag de la versión sobre la que se hicieron los cambios")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Campos a modificar", required = true, example = "{\"descripcion\": \"Nueva descripción\"}")
+            @RequestBody Map<String, Object> cambios) {
+        Long version = Etags.version(ifMatch, 'r', id);
+        if (version == null && cambios.get("version") instanceof Number numero) {
+            version = numero.longValue();
+        }
+        if (version == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body(Map.of("error", "Indique la versión con If-Match o con el campo 'version'"));
+        }
+        try {
+            return rolService.actualizarParcial(id, version, cambios)
+                    .<ResponseEntity<?>>map(actualizado -> ResponseEntity.ok()
+                            .eTag(Etags.de(actualizado))
+                            .body(assembler.toModel(actualizado)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
@@ -167,26 +379,97 @@ public class RolController {
 
     @Operation(
         summary = "Eliminar rol",
-        description = "Elimina permanentemente un rol del sistema"
+        description = "Elimina permanentemente un rol del sistema. Si el rol tiene usuarios, indique 'reassignTo': "
+                + "sus usuarios se mueven a ese rol con un único UPDATE en la misma transacción que la eliminación"
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Rol eliminado; la respuesta indica cuántos usuarios se reasignaron",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "204",
             description = "Rol eliminado exitosamente"
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Rol de destino inválido",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Rol no encontrado"
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "El rol tiene usuarios y no se indicó a qué rol moverlos",
+            content = @Content(mediaType = "application/json")
         )
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> eliminar(
+    public ResponseEntity<?> eliminar(
             @Parameter(description = "ID único del rol", required = true, example = "1")
-            @PathVariable Long id) {
-        if (rolService.buscarPorId(id).isPresent()) {
-            rolService.eliminar(id);
-            return ResponseEntity.noContent().build();
+            @PathVariable Long id,
+            @Parameter(description = "ID del rol al que se moverán los usuarios del rol eliminado", example = "2")
+            @RequestParam(required = false) Long reassignTo) {
+        if (reassignTo != null) {
+            try {
+                return rolService.eliminar(id, reassignTo)
+                        .<ResponseEntity<?>>map(reasignados -> ResponseEntity.ok(Map.of("usuariosReasignados", reasignados)))
+                        .orElse(ResponseEntity.notFound().build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", e.getMessage()));
+            }
+        }
+        try {
+            if (rolService.eliminar(id)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El rol tiene usuarios asignados; indique en 'reassignTo' a qué rol moverlos"));
+        }
+    }
+
+    @Operation(
+        summary = "Reasignar usuarios de un rol",
+        description = "Mueve todos los usuarios del rol al rol indicado con un único UPDATE y responde cuántos se movieron"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Usuarios reasignados exitosamente"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Rol de destino inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Rol no encontrado",
+            content = @Content
+        )
+    })
+    @PostMapping("/{id}/reassign")
+    public ResponseEntity<?> reasignarUsuarios(
+            @Parameter(description = "ID del rol cuyos usuarios se moverán", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ID del rol de destino", required = true, example = "2")
+            @RequestParam Long to) {
+        if (rolService.buscarPorId(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(Map.of("usuariosReasignados", rolService.reasignarUsuarios(id, to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         }
-        return ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<Map<String, String>> conflicto() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "El rol fue modificado por otra petición; vuelva a leerlo e intente de nuevo"));
     }
 }
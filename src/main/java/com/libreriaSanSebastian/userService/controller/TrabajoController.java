@@ -0,0 +1,225 @@
+package com.libreriaSanSebastian.userService.controller;
+
+import com.libreriaSanSebastian.userService.assemblers.TrabajoModelAssembler;
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.TrabajoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@Tag(name = "Trabajos", description = "Operaciones masivas sobre usuarios que se ejecutan en segundo plano")
+public class TrabajoController {
+
+    @Autowired
+    private TrabajoService trabajoService;
+
+    @Autowired
+    private TrabajoModelAssembler assembler;
+
+    @Operation(
+        summary = "Listar trabajos recientes",
+        description = "Obtiene los últimos 50 trabajos, del más reciente al más antiguo"
+    )
+    @ApiResponse(responseCode = "200", description = "Trabajos obtenidos exitosamente")
+    @GetMapping
+    public CollectionModel<EntityModel<Trabajo>> listarRecientes() {
+        List<EntityModel<Trabajo>> trabajos = trabajoService.listarRecientes().stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList());
+
+        return CollectionModel.of(trabajos,
+                linkTo(methodOn(TrabajoController.class).listarRecientes()).withSelfRel());
+    }
+
+    @Operation(
+        summary = "Obtener trabajo por ID",
+        description = "Estado, filas procesadas, errores y filas por segundo de un trabajo"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Trabajo encontrado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Trabajo.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<EntityModel<Trabajo>> obtenerPorId(
+            @Parameter(description = "ID del trabajo", required = true, example = "1")
+            @PathVariable Long id) {
+        return trabajoService.buscar(id)
+                .map(assembler::toModel)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Importar usuarios en segundo plano",
+        description = "Recibe un archivo CSV o NDJSON con el mismo formato que /api/v1/usuarios/import y lo importa "
+                + "en segundo plano. Responde de inmediato con el trabajo; su avance se consulta en el enlace 'self'"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "503", description = "La cola de trabajos está llena", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> importar(
+            @Parameter(description = "Formato del archivo: ndjson o csv", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream cuerpo) throws IOException {
+        try {
+            return aceptado(trabajoService.importar(FormatoArchivo.de(format), cuerpo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return colaLlena();
+        }
+    }
+
+    @Operation(
+        summary = "Exportar usuarios en segundo plano",
+        description = "Genera el archivo de exportación en segundo plano; al completarse se descarga desde el enlace 'resultado'"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "503", description = "La cola de trabajos está llena", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/export")
+    public ResponseEntity<?> exportar(
+            @Parameter(description = "Formato del archivo: ndjson o csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            return aceptado(trabajoService.exportar(FormatoArchivo.de(format)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return colaLlena();
+        }
+    }
+
+    @Operation(
+        summary = "Eliminar usuarios en segundo plano",
+        description = "Elimina los usuarios indicados sin límite de cantidad, en lotes de hasta 1000 por transacción"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+        @ApiResponse(responseCode = "400", description = "Lista de IDs vacía", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "503", description = "La cola de trabajos está llena", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/delete")
+    public ResponseEntity<?> eliminar(
+            @Parameter(description = "IDs de los usuarios a eliminar", required = true)
+            @RequestBody List<Long> ids) throws IOException {
+        try {
+            return aceptado(trabajoService.eliminar(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return colaLlena();
+        }
+    }
+
+    @Operation(
+        summary = "Cancelar trabajo",
+        description = "Un trabajo pendiente no llega a comenzar; uno en curso se detiene al terminar el bloque actual "
+                + "y conserva lo ya confirmado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Cancelación solicitada"),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado", content = @Content),
+        @ApiResponse(responseCode = "409", description = "El trabajo ya terminó", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelar(
+            @Parameter(description = "ID del trabajo", required = true, example = "1")
+            @PathVariable Long id) {
+        Optional<Trabajo> estadoPrevio = trabajoService.buscar(id);
+        if (estadoPrevio.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (estadoPrevio.get().getEstado().isTerminado()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El trabajo ya terminó con estado " + estadoPrevio.get().getEstado()));
+        }
+        return trabajoService.cancelar(id)
+                .map(trabajo -> ResponseEntity.accepted().body(assembler.toModel(trabajo)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Descargar resultado de exportación",
+        description = "Devuelve el archivo generado por un trabajo de exportación completado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivo de exportación", content = {
+            @Content(mediaType = "application/x-ndjson"),
+            @Content(mediaType = "text/csv")
+        }),
+        @ApiResponse(responseCode = "404", description = "El trabajo no existe o no generó un archivo", content = @Content)
+    })
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<Resource> resultado(
+            @Parameter(description = "ID del trabajo", required = true, example = "1")
+            @PathVariable Long id) {
+        Optional<Trabajo> trabajo = trabajoService.buscar(id);
+        Optional<Path> archivo = trabajo.flatMap(trabajoService::buscarResultado);
+        if (archivo.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        FormatoArchivo formato = FormatoArchivo.de(trabajo.get().getFormato());
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("usuarios." + formato.getExtension())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(archivo.get()));
+    }
+
+    private ResponseEntity<EntityModel<Trabajo>> aceptado(Trabajo trabajo) {
+        EntityModel<Trabajo> modelo = assembler.toModel(trabajo);
+        return ResponseEntity.accepted()
+                .location(linkTo(methodOn(TrabajoController.class).obtenerPorId(trabajo.getId())).toUri())
+                .body(modelo);
+    }
+
+    private static ResponseEntity<Map<String, String>> colaLlena() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", "La cola de trabajos está llena, intente más tarde"));
+    }
+}
@@ -1,7 +1,17 @@
 package com.libreriaSanSebastian.userService.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioResumenModelAssembler;
+import com.libreriaSanSebastian.userService.dto.BusquedaMultiple;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
 import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.ExportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.ImportacionUsuariosService;
 import com.libreriaSanSebastian.userService.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,14 +21,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -31,26 +52,361 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     @Autowired
     private UsuarioModelAssembler assembler;
 
+    @Autowired
+    private UsuarioResumenModelAssembler resumenAssembler;
+
+    @Autowired
+    private ExportacionUsuariosService exportacionService;
+
+    @Autowired
+    private ImportacionUsuariosService importacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Operation(
+        summary = "Listar usuarios paginados",
+        description = "Obtiene una página de usuarios ordenada por ID usando paginación por cursor. "
+                + "El enlace 'next' apunta a la página siguiente"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de usuarios obtenida exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "La página no cambió desde el ETag indicado",
+            content = @Content
+        )
+    })
+    @GetMapping
+    public ResponseEntity<CollectionModel<EntityModel<Usuario>>> listarTodos(
+            @Parameter(description = "ID del último usuario de la página anterior", example = "20")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad de usuarios por página (máximo " + Pagina.LIMITE_MAXIMO + ")", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<Usuario> pagina = usuarioService.listarPagina(after, limit);
+        String etag = Etags.deColeccion(pagina.getContenido(), Etags::de, pagina.getSiguiente());
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return Etags.noModificado(etag);
+        }
+        List<EntityModel<Usuario>> usuarios = pagina.getContenido().stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<Usuario>> modelo = CollectionModel.of(usuarios,
+                linkTo(methodOn(UsuarioController.class).listarTodos(after, limit, null)).withSelfRel());
+        if (pagina.getSiguiente() != null) {
+            modelo.add(linkTo(methodOn(UsuarioController.class)
+                    .listarTodos(pagina.getSiguiente(), pagina.getLimite(), null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok().eTag(etag).body(modelo);
+    }
+
+    @Operation(
+        summary = "Exportar usuarios",
+        description = "Descarga todos los usuarios ordenados por ID, en NDJSON (un objeto por línea) o CSV. Las filas "
+                + "se leen de un cursor y se escriben a medida que llegan, sin cargar la tabla en memoria"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso", content = {
+            @Content(mediaType = "application/x-ndjson"),
+            @Content(mediaType = "text/csv")
+        }),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato del archivo: ndjson o csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // El cuerpo tiene que ser StreamingResponseBody para que Spring lo escriba en streaming, también el del error
+        FormatoArchivo formato;
+        try {
+            formato = FormatoArchivo.de(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(salida -> objectMapper.writeValue(salida, Map.of("error", e.getMessage())));
+        }
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportar(formato, salida);
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("usuarios." + formato.getExtension())
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+
+    @Operation(
+        summary = "Importar usuarios",
+        description = "Crea usuarios desde un archivo CSV (con encabezado) o NDJSON enviado como cuerpo de la petición. "
+                + "Columnas: nombre, email, rut y rolNombre o rolId. El archivo se procesa a medida que llega y se guarda "
+                + "en bloques de importacion.tamano-chunk filas; las filas inválidas no detienen la importación y se "
+                + "informan en un reporte descargable desde el enlace 'errores'"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Todas las filas fueron importadas"),
+        @ApiResponse(responseCode = "207", description = "Importación terminada con filas rechazadas"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> importar(
+            @Parameter(description = "Formato del archivo: ndjson o csv", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream cuerpo) throws IOException {
+        FormatoArchivo formato;
+        try {
+            formato = FormatoArchivo.de(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+        ResultadoImportacion resultado = importacionService.importar(formato, cuerpo);
+        if (resultado.getReporte() != null) {
+            resultado.add(linkTo(methodOn(UsuarioController.class).reporteImportacion(resultado.getReporte()))
+                    .withRel("errores"));
+        }
+        HttpStatus estado = resultado.getRechazados() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(estado).body(resultado);
+    }
+
+    @Operation(
+        summary = "Descargar errores de importación",
+        description = "Devuelve en CSV las filas rechazadas de una importación (línea y motivo), mientras el reporte no expire"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reporte de errores", content = @Content(mediaType = "text/csv")),
+        @ApiResponse(responseCode = "404", description = "Reporte inexistente o expirado", content = @Content)
+    })
+    @GetMapping("/import/{id}/errores")
+    public ResponseEntity<Resource> reporteImportacion(
+            @Parameter(description = "Identificador del reporte", required = true)
+            @PathVariable String id) {
+        return importacionService.buscarReporte(id)
+                .map(archivo -> ResponseEntity.ok()
+                        .contentType(FormatoArchivo.CSV.getMediaType())
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("errores-importacion.csv")
+                                .build()
+                                .toString())
+                        .<Resource>body(new FileSystemResource(archivo)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Buscar usuarios por nombre",
+        description = "Búsqueda type-ahead: cada palabra se compara como prefijo, sin distinguir mayúsculas ni tildes, "
+                + "y tolera errores de tipeo cuando no hay suficientes coincidencias. Los resultados vienen ordenados "
+                + "por relevancia; el enlace 'next' apunta a la página siguiente"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Texto de búsqueda vacío", content = @Content)
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> buscar(
+            @Parameter(description = "Texto a buscar en el nombre", required = true, example = "juan pe")
+            @RequestParam String q,
+            @Parameter(description = "Posición del primer resultado", example = "0")
+            @RequestParam(required = false) Integer offset,
+            @Parameter(description = "Cantidad de resultados por página (máximo " + Pagina.LIMITE_MAXIMO + ")", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Pagina<Usuario> pagina = usuarioService.buscarPorTexto(q, offset, limit);
+            List<EntityModel<Usuario>> usuarios = pagina.getContenido().stream()
+                    .map(assembler::toModel)
+                    .collect(Collectors.toList());
+
+            CollectionModel<EntityModel<Usuario>> modelo = CollectionModel.of(usuarios,
+                    linkTo(methodOn(UsuarioController.class).buscar(q, offset, limit)).withSelfRel());
+            if (pagina.getSiguiente() != null) {
+                modelo.add(linkTo(methodOn(UsuarioController.class)
+                        .buscar(q, pagina.getSiguiente().intValue(), pagina.getLimite())).withRel(IanaLinkRelations.NEXT));
+            }
+            return ResponseEntity.ok(modelo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @Operation(
-        summary = "Listar todos los usuarios",
-        description = "Obtiene una lista completa de todos los usuarios registrados en el sistema"
+        summary = "Listar resúmenes de usuarios paginados",
+        description = "Como el listado de usuarios, pero con el nombre del rol en lugar del rol completo. Se lee con una "
+                + "proyección en una transacción de sólo lectura, sin cargar entidades; el enlace 'next' apunta a la "
+                + "página siguiente"
     )
     @ApiResponse(
         responseCode = "200",
-        description = "Lista de usuarios obtenida exitosamente",
-        content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
+        description = "Página de resúmenes obtenida exitosamente",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResumen.class))
     )
-    @GetMapping
-    public CollectionModel<EntityModel<Usuario>> listarTodos() {
-        List<EntityModel<Usuario>> usuarios = usuarioService.listarTodos().stream()
-                .map(assembler::toModel)
+    @GetMapping("/resumen")
+    public CollectionModel<EntityModel<UsuarioResumen>> listarResumenes(
+            @Parameter(description = "ID del último usuario de la página anterior", example = "20")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Cantidad de usuarios por página (máximo " + Pagina.LIMITE_MAXIMO + ")", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        Pagina<UsuarioResumen> pagina = usuarioService.listarResumenes(after, limit);
+        List<EntityModel<UsuarioResumen>> resumenes = pagina.getContenido().stream()
+                .map(resumenAssembler::toModel)
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(usuarios,
-                linkTo(methodOn(UsuarioController.class).listarTodos()).withSelfRel());
+        CollectionModel<EntityModel<UsuarioResumen>> modelo = CollectionModel.of(resumenes,
+                linkTo(methodOn(UsuarioController.class).listarResumenes(after, limit)).withSelfRel());
+        if (pagina.getSiguiente() != null) {
+            modelo.add(linkTo(methodOn(UsuarioController.class)
+                    .listarResumenes(pagina.getSiguiente(), pagina.getLimite())).withRel(IanaLinkRelations.NEXT));
+        }
+        return modelo;
+    }
+
+    @Operation(
+        summary = "Obtener resumen de usuario por ID",
+        description = "Retorna el resumen de un usuario leído con una proyección, sin cargar la entidad"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Usuario encontrado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResumen.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content
+        )
+    })
+    @GetMapping("/resumen/{id}")
+    public ResponseEntity<EntityModel<UsuarioResumen>> obtenerResumenPorId(
+            @Parameter(description = "ID único del usuario", required = true, example = "1")
+            @PathVariable Long id) {
+        return usuarioService.buscarResumenPorId(id)
+                .map(resumenAssembler::toModel)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Obtener resumen de usuario por RUT",
+        description = "Retorna el resumen de un usuario por su RUT, con o sin puntos y guion"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Usuario encontrado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResumen.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "RUT con formato o dígito verificador inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content
+        )
+    })
+    @GetMapping("/resumen/rut/{rut}")
+    public ResponseEntity<?> obtenerResumenPorRut(
+            @Parameter(description = "RUT del usuario", required = true, example = "12345678-5")
+            @PathVariable String rut) {
+        try {
+            return usuarioService.buscarResumenPorRut(rut)
+                    .map(resumenAssembler::toModel)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Obtener resumen de usuario por email",
+        description = "Retorna el resumen de un usuario por su email, sin distinguir mayúsculas de minúsculas"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Usuario encontrado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResumen.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content
+        )
+    })
+    @GetMapping("/resumen/email/{email}")
+    public ResponseEntity<EntityModel<UsuarioResumen>> obtenerResumenPorEmail(
+            @Parameter(description = "Email del usuario", required = true, example = "juan@email.com")
+            @PathVariable String email) {
+        return usuarioService.buscarResumenPorEmail(email)
+                .map(resumenAssembler::toModel)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Obtener varios usuarios por ID",
+        description = "Busca hasta " + UsuarioService.LIMITE_BUSQUEDA_MULTIPLE + " usuarios en una sola consulta. "
+                + "Los encontrados se devuelven en el orden solicitado y los IDs inexistentes en 'noEncontrados'"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Demasiados IDs en la petición", content = @Content)
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> obtenerPorIds(
+            @Parameter(description = "IDs separados por coma", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(aModelo(usuarioService.buscarPorIds(ids)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Obtener varios usuarios por RUT",
+        description = "Busca hasta " + UsuarioService.LIMITE_BUSQUEDA_MULTIPLE + " usuarios por RUT en una sola consulta. "
+                + "Los encontrados se devuelven en el orden solicitado y los RUT inexistentes en 'noEncontrados'"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Demasiados RUT o algún RUT inválido", content = @Content)
+    })
+    @PostMapping("/rut/batch")
+    public ResponseEntity<?> obtenerPorRuts(
+            @Parameter(description = "Lista de RUT a buscar", required = true)
+            @RequestBody List<String> ruts) {
+        try {
+            return ResponseEntity.ok(aModelo(usuarioService.buscarPorRuts(ruts)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
     }
 
     @Operation(
@@ -63,6 +419,11 @@ public class UsuarioController {
             description = "Usuario encontrado exitosamente",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El usuario no cambió desde el ETag indicado",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Usuario no encontrado",
@@ -72,11 +433,10 @@ public class UsuarioController {
     @GetMapping("/{id}")
     public ResponseEntity<EntityModel<Usuario>> obtenerPorId(
             @Parameter(description = "ID único del usuario", required = true, example = "1")
-            @PathVariable Long id) {
-        return usuarioService.buscarPorId(id)
-                .map(assembler::toModel)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable Long id,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responder(usuarioService.buscarPorId(id), ifNoneMatch);
     }
 
     @Operation(
@@ -89,6 +449,11 @@ public class UsuarioController {
             description = "Usuario encontrado exitosamente",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El usuario no cambió desde el ETag indicado",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Usuario no encontrado",
@@ -98,16 +463,16 @@ public class UsuarioController {
     @GetMapping("/nombre/{nombre}")
     public ResponseEntity<EntityModel<Usuario>> obtenerPorNombre(
             @Parameter(description = "Nombre del usuario", required = true, example = "Juan Pérez")
-            @PathVariable String nombre) {
-        return usuarioService.buscarPorNombre(nombre)
-                .map(assembler::toModel)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable String nombre,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responder(usuarioService.buscarPorNombre(nombre), ifNoneMatch);
     }
 
     @Operation(
         summary = "Obtener usuario por RUT",
-        description = "Busca y retorna un usuario específico por su RUT"
+        description = "Busca y retorna un usuario específico por su RUT. Acepta el RUT con o sin puntos y guion "
+                + "(12.345.678-5, 12345678-5 o 123456785)"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -115,6 +480,16 @@ public class UsuarioController {
             description = "Usuario encontrado exitosamente",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "RUT con formato o dígito verificador inválido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El usuario no cambió desde el ETag indicado",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Usuario no encontrado",
@@ -122,13 +497,47 @@ public class UsuarioController {
         )
     })
     @GetMapping("/rut/{rut}")
-    public ResponseEntity<EntityModel<Usuario>> obtenerPorRut(
-            @Parameter(description = "RUT del usuario", required = true, example = "12345678-9")
-            @PathVariable String rut) {
-        return usuarioService.buscarPorRut(rut)
-                .map(assembler::toModel)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> obtenerPorRut(
+            @Parameter(description = "RUT del usuario", required = true, example = "12345678-5")
+            @PathVariable String rut,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return responder(usuarioService.buscarPorRut(rut), ifNoneMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Obtener usuario por email",
+        description = "Busca y retorna un usuario por su email, sin distinguir mayúsculas de minúsculas"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Usuario encontrado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El usuario no cambió desde el ETag indicado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content
+        )
+    })
+    @GetMapping("/email/{email}")
+    public ResponseEntity<EntityModel<Usuario>> obtenerPorEmail(
+            @Parameter(description = "Email del usuario", required = true, example = "juan@email.com")
+            @PathVariable String email,
+            @Parameter(description = "ETag obtenido en una respuesta anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return responder(usuarioService.buscarPorEmail(email), ifNoneMatch);
     }
 
     @Operation(
@@ -159,7 +568,7 @@ public class UsuarioController {
             Usuario usuarioCreado = usuarioService.guardar(usuario);
             return ResponseEntity
                     .status(HttpStatus.CREATED)
-                    .location(linkTo(methodOn(UsuarioController.class).obtenerPorId(usuarioCreado.getId())).toUri())
+                    .location(linkTo(methodOn(UsuarioController.class).obtenerPorId(usuarioCreado.getId(), null)).toUri())
                     .body(assembler.toModel(usuarioCreado));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -167,6 +576,68 @@ public class UsuarioController {
         }
     }
 
+    @Operation(
+        summary = "Crear usuarios en lote",
+        description = "Registra hasta " + UsuarioService.LIMITE_LOTE + " usuarios en una sola transacción con inserciones "
+                + "agrupadas. Los elementos rechazados (datos faltantes, RUT inválido, RUT o email duplicado) se informan "
+                + "por su posición sin impedir la creación del resto"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Todos los usuarios fueron creados",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResultadoLote.class))
+        ),
+        @ApiResponse(
+            responseCode = "207",
+            description = "Algunos usuarios fueron rechazados",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResultadoLote.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote inválido",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<?> crearLote(
+            @Parameter(description = "Usuarios a crear", required = true)
+            @RequestBody List<Usuario> usuarios) {
+        try {
+            ResultadoLote resultado = usuarioService.guardarLote(usuarios);
+            HttpStatus estado = resultado.getRechazados().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(estado).body(resultado);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Eliminar usuarios en lote",
+        description = "Elimina hasta " + UsuarioService.LIMITE_LOTE + " usuarios con una sola sentencia DELETE en una "
+                + "transacción. Los IDs inexistentes se ignoran; la respuesta indica cuántos usuarios se eliminaron"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado exitosamente"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote inválido",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/batch/delete")
+    public ResponseEntity<?> eliminarLote(
+            @Parameter(description = "IDs de los usuarios a eliminar", required = true)
+            @RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(Map.of("eliminados", usuarioService.eliminarLote(ids)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @Operation(
         summary = "Actualizar usuario",
         description = "Actualiza los datos de un usuario existente"
@@ -182,6 +653,16 @@ public class UsuarioController {
             description = "Datos de entrada inválidos",
             content = @Content(mediaType = "application/json")
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Otra petición modificó el usuario al mismo tiempo",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "412",
+            description = "If-Match no coincide con la versión actual",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Usuario no encontrado",
@@ -192,6 +673,8 @@ public class UsuarioController {
     public ResponseEntity<?> actualizar(
             @Parameter(description = "ID único del usuario", required = true, example = "1")
             @PathVariable Long id,
+            @Parameter(description = "ETag de la versión sobre la que se hicieron los cambios")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Datos actualizados del usuario", required = true)
             @RequestBody Usuario usuario) {
         try {
@@ -200,12 +683,83 @@ public class UsuarioController {
                         .body(Map.of("error", "El nombre del usuario es requerido"));
             }
             return usuarioService.buscarPorId(id)
-                    .map(existente -> {
+                    .<ResponseEntity<?>>map(existente -> {
+                        if (!Etags.cumple(ifMatch, Etags.de(existente))) {
+                            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                    .eTag(Etags.de(existente))
+                                    .body(Map.of("error", "El usuario cambió desde el ETag indicado"));
+                        }
                         usuario.setId(id);
+                        usuario.setVersion(existente.getVersion());
                         Usuario actualizado = usuarioService.guardar(usuario);
-                        return ResponseEntity.ok(assembler.toModel(actualizado));
+                        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(assembler.toModel(actualizado));
                     })
                     .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Actualizar usuario parcialmente",
+        description = "Aplica un JSON Merge Patch (RFC 7396): sólo se modifican los campos presentes, con un único "
+                + "UPDATE condicionado a la versión. La versión se indica con If-Match (ETag de una lectura anterior) "
+                + "o con el campo 'version' del cuerpo"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Usuario actualizado exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Campos inválidos o no modificables",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "La versión indicada ya no es la actual",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "428",
+            description = "Falta la versión (If-Match o campo 'version')",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> actualizarParcial(
+            @Parameter(description = "ID único del usuario", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ETag de la versión sobre la que se hicieron los cambios")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Campos a modificar", required = true, example = "{\"email\": \"nuevo@email.com\"}")
+            @RequestBody Map<String, Object> cambios) {
+        Long version = Etags.version(ifMatch, 'u', id);
+        if (version == null && cambios.get("version") instanceof Number numero) {
+            version = numero.longValue();
+        }
+        if (version == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body(Map.of("error", "Indique la versión con If-Match o con el campo 'version'"));
+        }
+        try {
+            return usuarioService.actualizarParcial(id, version, cambios)
+                    .<ResponseEntity<?>>map(actualizado -> ResponseEntity.ok()
+                            .eTag(Etags.de(actualizado))
+                            .body(assembler.toModel(actualizado)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
@@ -230,10 +784,32 @@ public class UsuarioController {
     public ResponseEntity<Void> eliminar(
             @Parameter(description = "ID único del usuario", required = true, example = "1")
             @PathVariable Long id) {
-        if (usuarioService.buscarPorId(id).isPresent()) {
-            usuarioService.eliminar(id);
+        if (usuarioService.eliminar(id)) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    private ResponseEntity<EntityModel<Usuario>> responder(Optional<Usuario> usuario, String ifNoneMatch) {
+        return usuario.map(encontrado -> {
+                    String etag = Etags.de(encontrado);
+                    if (Etags.coincide(ifNoneMatch, etag)) {
+                        return Etags.<EntityModel<Usuario>>noModificado(etag);
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(assembler.toModel(encontrado));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private BusquedaMultiple<EntityModel<Usuario>> aModelo(BusquedaMultiple<Usuario> busqueda) {
+        List<EntityModel<Usuario>> encontrados = busqueda.getEncontrados().stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList());
+        return new BusquedaMultiple<>(encontrados, busqueda.getNoEncontrados());
+    }
+
+    private ResponseEntity<Map<String, String>> conflicto() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "El usuario fue modificado por otra petición; vuelva a leerlo e intente de nuevo"));
+    }
 }
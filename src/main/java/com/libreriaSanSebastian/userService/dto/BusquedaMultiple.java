@@ -0,0 +1,21 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+/**
+ * Resultado de buscar varios elementos a la vez: los encontrados en el orden de la petición
+ * y las claves que no existen. Extiende RepresentationModel para que los modelos anidados
+ * se serialicen en formato HAL.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class BusquedaMultiple<T> extends RepresentationModel<BusquedaMultiple<T>> {
+    private List<T> encontrados;
+    private List<String> noEncontrados;
+}
@@ -0,0 +1,21 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EstadisticasCache {
+    private String nombre;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private double tasaAciertos;
+    private long tamano;
+
+    public static EstadisticasCache de(String nombre, CacheStats stats, long tamano) {
+        return new EstadisticasCache(nombre, stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate(), tamano);
+    }
+}
@@ -0,0 +1,17 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Distribución de usuarios por rol, ordenada de mayor a menor cantidad de usuarios.
+ */
+@Data
+@AllArgsConstructor
+public class EstadisticasRoles {
+    private long totalUsuarios;
+    private long usuariosSinRol;
+    private List<RolConUsuarios> roles;
+}
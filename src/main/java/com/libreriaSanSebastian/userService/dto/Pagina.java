@@ -0,0 +1,45 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados obtenida por paginación keyset (cursor por ID).
+ * {@code siguiente} es el cursor para la página siguiente, o {@code null} si no hay más resultados.
+ */
+@Data
+@AllArgsConstructor
+public class Pagina<T> {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private List<T> contenido;
+    private Long siguiente;
+    private int limite;
+
+    /**
+     * Acota el tamaño de página solicitado al rango [1, LIMITE_MAXIMO].
+     */
+    public static int normalizarLimite(Integer limite) {
+        if (limite == null || limite < 1) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Construye la página a partir de una consulta que pidió {@code limite + 1} filas:
+     * la fila extra solo indica que existe una página siguiente y se descarta.
+     */
+    public static <T> Pagina<T> de(List<T> filas, int limite, Function<T, Long> id) {
+        if (filas.size() <= limite) {
+            return new Pagina<>(filas, null, limite);
+        }
+        List<T> contenido = filas.subList(0, limite);
+        return new Pagina<>(contenido, id.apply(contenido.get(limite - 1)), limite);
+    }
+}
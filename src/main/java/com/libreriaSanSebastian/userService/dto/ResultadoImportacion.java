@@ -0,0 +1,18 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * Resumen de una importación masiva. Si hubo filas rechazadas, {@code reporte} identifica el
+ * reporte CSV de errores (línea y motivo) que se puede descargar mientras no expire.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ResultadoImportacion extends RepresentationModel<ResultadoImportacion> {
+    private long leidos;
+    private long creados;
+    private long rechazados;
+    private String reporte;
+}
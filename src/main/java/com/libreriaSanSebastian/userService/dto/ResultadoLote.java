@@ -0,0 +1,30 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una creación masiva: cada elemento se informa por su posición en la petición.
+ */
+@Data
+public class ResultadoLote {
+    private List<Creado> creados = new ArrayList<>();
+    private List<Rechazado> rechazados = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class Creado {
+        private int indice;
+        private Long id;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Rechazado {
+        private int indice;
+        private String motivo;
+    }
+}
@@ -0,0 +1,22 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.libreriaSanSebastian.userService.model.Rol;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Representación de lectura de un rol con la cantidad de usuarios que lo tienen. El rol se serializa
+ * con sus propios campos al mismo nivel que {@code usuarioCount}, y la relación HAL es la misma del rol.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Relation(itemRelation = "rol", collectionRelation = "rolList")
+public class RolConUsuarios {
+    @JsonUnwrapped
+    private Rol rol;
+    private long usuarioCount;
+}
@@ -0,0 +1,20 @@
+package com.libreriaSanSebastian.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vista de lectura de un usuario armada directamente por la consulta (expresión constructora JPQL):
+ * no crea entidades administradas, proxies del rol ni snapshots para la verificación de cambios.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioResumen {
+    private Long id;
+    private String nombre;
+    private String email;
+    private String rut;
+    private String rolNombre;
+}
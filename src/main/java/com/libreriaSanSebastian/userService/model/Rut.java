@@ -0,0 +1,101 @@
+package com.libreriaSanSebastian.userService.model;
+
+import java.util.Optional;
+
+/**
+ * RUT chileno normalizado: cuerpo numérico y dígito verificador (0-9 o K).
+ * Acepta cualquier formato habitual ({@code 12.345.678-5}, {@code 12345678-5}, {@code 123456785})
+ * y valida el dígito verificador con módulo 11, sin consultar la base de datos.
+ */
+public final class Rut {
+
+    private static final long CUERPO_MAXIMO = 999_999_999L;
+
+    private final long numero;
+    private final char dv;
+
+    private Rut(long numero, char dv) {
+        this.numero = numero;
+        this.dv = dv;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el texto no es un RUT o su dígito verificador no corresponde
+     */
+    public static Rut parse(String texto) {
+        return intentar(texto).orElseThrow(() -> new IllegalArgumentException("El RUT " + texto + " no es válido"));
+    }
+
+    public static Optional<Rut> intentar(String texto) {
+        if (texto == null) {
+            return Optional.empty();
+        }
+        StringBuilder limpio = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c != '.' && c != '-' && c != ' ') {
+                limpio.append(Character.toUpperCase(c));
+            }
+        }
+        if (limpio.length() < 2 || limpio.length() > 10) {
+            return Optional.empty();
+        }
+        long numero = 0;
+        for (int i = 0; i < limpio.length() - 1; i++) {
+            char c = limpio.charAt(i);
+            if (c < '0' || c > '9') {
+                return Optional.empty();
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        char dv = limpio.charAt(limpio.length() - 1);
+        if (numero == 0 || numero > CUERPO_MAXIMO || dv != calcularDv(numero)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Rut(numero, dv));
+    }
+
+    public static Rut de(long numero) {
+        if (numero <= 0 || numero > CUERPO_MAXIMO) {
+            throw new IllegalArgumentException("El número de RUT " + numero + " está fuera de rango");
+        }
+        return new Rut(numero, calcularDv(numero));
+    }
+
+    public static char calcularDv(long numero) {
+        long suma = 0;
+        int factor = 2;
+        for (long resto = numero; resto > 0; resto /= 10) {
+            suma += (resto % 10) * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+        }
+        int dv = 11 - (int) (suma % 11);
+        return dv == 11 ? '0' : dv == 10 ? 'K' : (char) ('0' + dv);
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    public char getDv() {
+        return dv;
+    }
+
+    /**
+     * Forma canónica con la que se guarda el RUT: cuerpo sin puntos, guion y dígito verificador.
+     */
+    @Override
+    public String toString() {
+        return numero + "-" + dv;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Rut && ((Rut) o).numero == numero;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numero);
+    }
+}
@@ -0,0 +1,90 @@
+package com.libreriaSanSebastian.userService.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import jakarta.persistence.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Operación masiva que se ejecuta en segundo plano (importación, exportación o eliminación de usuarios).
+ * El avance se guarda por bloque, así que el estado sobrevive a un reinicio del servicio.
+ */
+@Entity
+@Table(name = "trabajos")
+@Data
+@NoArgsConstructor
+public class Trabajo {
+
+    public enum Tipo { IMPORTACION, EXPORTACION, ELIMINACION }
+
+    public enum Estado {
+        PENDIENTE, EN_CURSO, COMPLETADO, FALLIDO, CANCELADO, INTERRUMPIDO;
+
+        public boolean isTerminado() {
+            return this != PENDIENTE && this != EN_CURSO;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Estado estado;
+
+    // Formato del archivo de importación o exportación
+    @Column(length = 10)
+    private String formato;
+
+    @Column(nullable = false)
+    private long procesados;
+
+    @Column(nullable = false)
+    private long errores;
+
+    @Column(length = 500)
+    private String mensaje;
+
+    // Identificador del reporte de filas rechazadas de una importación
+    @Column(length = 36)
+    private String reporte;
+
+    @Column(nullable = false)
+    private Instant creado;
+
+    private Instant iniciado;
+
+    private Instant terminado;
+
+    public Trabajo(Tipo tipo, String formato) {
+        this.tipo = tipo;
+        this.formato = formato;
+        this.estado = Estado.PENDIENTE;
+        this.creado = Instant.now();
+    }
+
+    /**
+     * Filas procesadas por segundo desde que comenzó, hasta que terminó o hasta ahora.
+     */
+    @JsonProperty("filasPorSegundo")
+    public Double getFilasPorSegundo() {
+        if (iniciado == null) {
+            return null;
+        }
+        long milisegundos = Duration.between(iniciado, terminado != null ? terminado : Instant.now()).toMillis();
+        return milisegundos <= 0 ? null : procesados * 1000.0 / milisegundos;
+    }
+
+    @JsonIgnore
+    public boolean isActivo() {
+        return !estado.isTerminado();
+    }
+}
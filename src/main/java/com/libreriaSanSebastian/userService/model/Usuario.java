@@ -1,16 +1,28 @@
 package com.libreriaSanSebastian.userService.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Locale;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        @Index(name = "idx_usuarios_nombre", columnList = "nombre"),
+        // Usuarios de un rol paginados por ID; también cubre la FK y los conteos por rol
+        @Index(name = "idx_usuarios_rol_id", columnList = "rol_id, id")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Usuario {
+    public static final String SECUENCIA = "usuarios_seq";
+    public static final int ASIGNACION_IDS = 50;
+
+    // IDs pooled desde una secuencia: a diferencia de IDENTITY permiten que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SECUENCIA)
+    @SequenceGenerator(name = SECUENCIA, sequenceName = SECUENCIA, allocationSize = ASIGNACION_IDS)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -19,10 +31,49 @@ public class Usuario {
     @Column(nullable = false, unique = true, length = 100)
     private String email;
 
+    // Email en minúsculas: la búsqueda sin distinguir mayúsculas es una lectura directa del índice único
+    @JsonIgnore
+    @Column(name = "email_normalizado", unique = true, length = 100)
+    private String emailNormalizado;
+
     @Column(nullable = false, unique = true, length = 20)
     private String rut;
 
-    @ManyToOne
+    // Cuerpo numérico del RUT: las búsquedas por RUT usan este índice en lugar del texto
+    @JsonIgnore
+    @Column(name = "rut_numero", unique = true)
+    private Long rutNumero;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rol_id")
     private Rol rol;
+
+    // Se incrementa en cada UPDATE; de aquí salen los ETag y el control de concurrencia optimista
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Usuario(Long id, String nombre, String email, String rut, Rol rol) {
+        this.id = id;
+        this.nombre = nombre;
+        this.email = email;
+        this.rut = rut;
+        this.rol = rol;
+    }
+
+    // Un RUT inválido deja rut_numero en null; el servicio rechaza esos RUT antes de guardar
+    @PrePersist
+    @PreUpdate
+    void normalizarClaves() {
+        Rut.intentar(rut).ifPresentOrElse(r -> {
+            rut = r.toString();
+            rutNumero = r.getNumero();
+        }, () -> rutNumero = null);
+        emailNormalizado = normalizarEmail(email);
+    }
+
+    public static String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.libreriaSanSebastian.userService.repository;
+
+import java.util.Map;
+
+/**
+ * Fragmento compartido por los repositorios de entidades con {@code @Version}: actualiza sólo las
+ * columnas indicadas en un único UPDATE condicionado a la versión, sin leer antes la fila.
+ */
+public interface ActualizacionVersionadaRepository {
+
+    /**
+     * Ejecuta {@code UPDATE ... SET <campos>, version = version + 1 WHERE id = :id AND version = :version}.
+     * Las claves de {@code campos} son atributos de la entidad y deben venir ya validadas por el servicio.
+     *
+     * @return filas actualizadas: 0 si la entidad no existe o su versión ya cambió
+     */
+    int actualizarVersionado(Class<?> entidad, Long id, Long version, Map<String, Object> campos);
+}
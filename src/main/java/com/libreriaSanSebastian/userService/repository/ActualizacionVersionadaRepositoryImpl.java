@@ -0,0 +1,44 @@
+package com.libreriaSanSebastian.userService.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ActualizacionVersionadaRepositoryImpl implements ActualizacionVersionadaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int actualizarVersionado(Class<?> entidad, Long id, Long version, Map<String, Object> campos) {
+        StringBuilder jpql = new StringBuilder("update ")
+                .append(entityManager.getMetamodel().entity(entidad).getName())
+                .append(" e set ");
+        List<Object> valores = new ArrayList<>();
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            jpql.append("e.").append(campo.getKey());
+            // Un null se escribe como literal: un parámetro null no tiene tipo que Hibernate pueda inferir
+            if (campo.getValue() == null) {
+                jpql.append(" = null, ");
+            } else {
+                valores.add(campo.getValue());
+                jpql.append(" = ?").append(valores.size()).append(", ");
+            }
+        }
+        jpql.append("e.version = e.version + 1 where e.id = :id and e.version = :version");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < valores.size(); i++) {
+            query.setParameter(i + 1, valores.get(i));
+        }
+        return query.setParameter("id", id)
+                .setParameter("version", version)
+                .executeUpdate();
+    }
+}
@@ -1,10 +1,21 @@
 package com.libreriaSanSebastian.userService.repository;
 
 import com.libreriaSanSebastian.userService.model.Rol;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface RolRepository extends JpaRepository<Rol, Long> {
+public interface RolRepository extends JpaRepository<Rol, Long>, ActualizacionVersionadaRepository {
     Rol findByNombre(String nombre);
+    List<Rol> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Rol r where r.id = :id")
+    int eliminarPorId(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.libreriaSanSebastian.userService.repository;
+
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Las transiciones de estado son UPDATE condicionados al estado actual: así una cancelación y el
+ * inicio o fin del trabajo no se pisan, y el avance se guarda sin cargar la entidad.
+ */
+@Repository
+public interface TrabajoRepository extends JpaRepository<Trabajo, Long> {
+
+    String PENDIENTE = "com.libreriaSanSebastian.userService.model.Trabajo.Estado.PENDIENTE";
+    String EN_CURSO = "com.libreriaSanSebastian.userService.model.Trabajo.Estado.EN_CURSO";
+
+    List<Trabajo> findTop50ByOrderByIdDesc();
+
+    List<Trabajo> findByEstadoIn(Collection<Trabajo.Estado> estados);
+
+    @Transactional
+    @Modifying
+    @Query("update Trabajo t set t.estado = " + EN_CURSO + ", t.iniciado = :instante "
+            + "where t.id = :id and t.estado = " + PENDIENTE)
+    int iniciar(@Param("id") Long id, @Param("instante") Instant instante);
+
+    @Transactional
+    @Modifying
+    @Query("update Trabajo t set t.procesados = :procesados, t.errores = :errores where t.id = :id")
+    int actualizarAvance(@Param("id") Long id, @Param("procesados") long procesados, @Param("errores") long errores);
+
+    @Transactional
+    @Modifying
+    @Query("update Trabajo t set t.estado = :estado, t.mensaje = :mensaje, t.reporte = :reporte, t.terminado = :instante "
+            + "where t.id = :id and t.estado in (" + PENDIENTE + ", " + EN_CURSO + ")")
+    int terminar(@Param("id") Long id, @Param("estado") Trabajo.Estado estado, @Param("mensaje") String mensaje,
+                 @Param("reporte") String reporte, @Param("instante") Instant instante);
+}
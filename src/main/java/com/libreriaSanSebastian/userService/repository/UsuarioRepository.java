@@ -1,11 +1,119 @@
 package com.libreriaSanSebastian.userService.repository;
 
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
 import com.libreriaSanSebastian.userService.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Las lecturas que terminan serializadas en la API cargan el rol en la misma sentencia
+ * (@EntityGraph); en el resto de los casos la asociación es LAZY.
+ */
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-    Usuario findByNombre(String nombre);
-    Usuario findByRut(String rut);
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, ActualizacionVersionadaRepository {
+    // Puede haber varios usuarios con el mismo nombre: se devuelve el de menor ID
+    @EntityGraph(attributePaths = "rol")
+    Usuario findFirstByNombreOrderByIdAsc(String nombre);
+
+    // LIKE 'prefijo%' sobre idx_usuarios_nombre; respaldo de la búsqueda mientras carga el índice en memoria
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findByNombreStartingWithOrderByNombreAscIdAsc(String prefijo, Pageable pageable);
+
+    @EntityGraph(attributePaths = "rol")
+    Usuario findByRutNumero(Long rutNumero);
+
+    @EntityGraph(attributePaths = "rol")
+    Usuario findByEmailNormalizado(String emailNormalizado);
+
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Keyset por rol: WHERE rol_id = ? AND id > ? ORDER BY id se resuelve como un rango del índice (rol_id, id)
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findByRolIdAndIdGreaterThanOrderByIdAsc(Long rolId, Long id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "rol")
+    Optional<Usuario> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findAll();
+
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "rol")
+    List<Usuario> findByRutNumeroIn(Collection<Long> rutNumeros);
+
+    // Proyecciones de sólo lectura: una fila por usuario con el nombre del rol, sin hidratar entidades
+    String RESUMEN = "select new com.libreriaSanSebastian.userService.dto.UsuarioResumen("
+            + "u.id, u.nombre, u.email, u.rut, r.nombre) from Usuario u left join u.rol r ";
+
+    @Query(RESUMEN + "where u.id > :id order by u.id")
+    List<UsuarioResumen> findResumenesDespuesDe(@Param("id") Long id, Pageable pageable);
+
+    @Query(RESUMEN + "where u.id = :id")
+    Optional<UsuarioResumen> findResumenById(@Param("id") Long id);
+
+    @Query(RESUMEN + "where u.rutNumero = :rutNumero")
+    Optional<UsuarioResumen> findResumenByRutNumero(@Param("rutNumero") Long rutNumero);
+
+    @Query(RESUMEN + "where u.emailNormalizado = :email")
+    Optional<UsuarioResumen> findResumenByEmailNormalizado(@Param("email") String email);
+
+    // Conteos por rol con un GROUP BY sobre usuarios.rol_id (se resuelve en el índice de la FK, sin leer filas
+    // de usuarios); cada elemento es {rolId, cantidad} y rolId es null para los usuarios sin rol
+    @Query("select u.rol.id, count(u) from Usuario u group by u.rol.id")
+    List<Object[]> contarPorRol();
+
+    @Query("select u.rol.id, count(u) from Usuario u where u.rol.id in :rolIds group by u.rol.id")
+    List<Object[]> contarPorRoles(@Param("rolIds") Collection<Long> rolIds);
+
+    long countByRolId(Long rolId);
+
+    // Recorrido completo para la exportación: se lee de a EXPORTACION_FETCH_SIZE filas y las entidades
+    // quedan en sólo lectura; quien consume el Stream debe cerrarlo dentro de una transacción
+    String EXPORTACION_FETCH_SIZE = "500";
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORTACION_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from Usuario u left join fetch u.rol order by u.id")
+    Stream<Usuario> streamAllByOrderByIdAsc();
+
+    @Query("select u.rutNumero from Usuario u where u.rutNumero in :rutNumeros")
+    List<Long> findRutNumerosExistentes(@Param("rutNumeros") Collection<Long> rutNumeros);
+
+    @Query("select u.emailNormalizado from Usuario u where u.emailNormalizado in :emails")
+    List<String> findEmailsNormalizadosExistentes(@Param("emails") Collection<String> emails);
+
+    // DELETE directo: a diferencia de deleteById no carga la entidad antes; devuelve las filas borradas
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id")
+    int eliminarPorId(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Usuario u where u.id in :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+
+    // Reasignación en una sola sentencia; incrementa la versión para que los ETag de esos usuarios cambien
+    @Modifying
+    @Query(value = "UPDATE usuarios SET rol_id = :destino, version = version + 1 WHERE rol_id = :origen",
+            nativeQuery = true)
+    int reasignarRol(@Param("origen") Long origen, @Param("destino") Long destino);
 }
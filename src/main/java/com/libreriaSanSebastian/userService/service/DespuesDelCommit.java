@@ -0,0 +1,29 @@
+package com.libreriaSanSebastian.userService.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aplaza los efectos fuera de la base de datos (cachés, índice de búsqueda) hasta que la transacción
+ * en curso confirme: si se hicieran antes, un rollback dejaría datos que no existen. Una lectura que
+ * empezó antes del commit aún puede traer la fila anterior; {@link UsuarioCache} la descarta al registrarla.
+ * Sin transacción activa la acción se ejecuta de inmediato.
+ */
+final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.libreriaSanSebastian.userService.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta la tabla de usuarios fila a fila: las entidades se leen de un cursor, se escriben en la
+ * salida y se desasocian del contexto de persistencia, así que la memoria usada no depende del
+ * tamaño de la tabla. Se invoca desde el hilo que escribe la respuesta (StreamingResponseBody).
+ */
+@Service
+public class ExportacionUsuariosService {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int FILAS_POR_FLUSH = Integer.parseInt(UsuarioRepository.EXPORTACION_FETCH_SIZE);
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escribe todos los usuarios en {@code salida} ordenados por ID y devuelve cuántos se exportaron.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(FormatoArchivo formato, OutputStream salida) throws IOException {
+        return exportar(formato, salida, Progreso.NINGUNO);
+    }
+
+    /**
+     * Exporta informando el avance en cada envío; si {@code progreso} indica cancelación, deja de
+     * leer el cursor y devuelve las filas escritas hasta ese momento.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(FormatoArchivo formato, OutputStream salida, Progreso progreso) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 16 * 1024);
+        JsonGenerator json = null;
+        if (formato == FormatoArchivo.NDJSON) {
+            json = JSON.createGenerator(escritor);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        } else {
+            escritor.write(String.join(",", FormatoArchivo.COLUMNAS));
+            escritor.write("\r\n");
+        }
+
+        long filas = 0;
+        try (Stream<Usuario> usuarios = usuarioRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Usuario> iterador = usuarios.iterator();
+            while (iterador.hasNext()) {
+                Usuario usuario = iterador.next();
+                if (json != null) {
+                    escribirJson(json, usuario);
+                } else {
+                    escribirCsv(escritor, usuario);
+                }
+                entityManager.detach(usuario);
+                // La primera fila sale de inmediato; después, un envío por cada bloque leído de la base
+                if (++filas % FILAS_POR_FLUSH == 1) {
+                    vaciar(json, escritor);
+                    progreso.avanzar(filas, 0);
+                    if (progreso.cancelado()) {
+                        break;
+                    }
+                }
+            }
+        }
+        vaciar(json, escritor);
+        progreso.avanzar(filas, 0);
+        return filas;
+    }
+
+    private static void escribirJson(JsonGenerator json, Usuario usuario) throws IOException {
+        Rol rol = usuario.getRol();
+        json.writeStartObject();
+        json.writeNumberField("id", usuario.getId());
+        json.writeStringField("nombre", usuario.getNombre());
+        json.writeStringField("email", usuario.getEmail());
+        json.writeStringField("rut", usuario.getRut());
+        if (rol == null) {
+            json.writeNullField("rolId");
+            json.writeNullField("rolNombre");
+        } else {
+            json.writeNumberField("rolId", rol.getId());
+            json.writeStringField("rolNombre", rol.getNombre());
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void escribirCsv(Writer escritor, Usuario usuario) throws IOException {
+        Rol rol = usuario.getRol();
+        escritor.write(String.valueOf(usuario.getId()));
+        escritor.write(',');
+        escritor.write(campoCsv(usuario.getNombre()));
+        escritor.write(',');
+        escritor.write(campoCsv(usuario.getEmail()));
+        escritor.write(',');
+        escritor.write(campoCsv(usuario.getRut()));
+        escritor.write(',');
+        escritor.write(rol == null ? "" : String.valueOf(rol.getId()));
+        escritor.write(',');
+        escritor.write(rol == null ? "" : campoCsv(rol.getNombre()));
+        escritor.write("\r\n");
+    }
+
+    // RFC 4180: entre comillas si contiene separador, comillas o saltos de línea; las comillas se duplican
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + valor.replace("\"", "\"\"") + '"';
+            }
+        }
+        return valor;
+    }
+
+    private static void vaciar(JsonGenerator json, Writer escritor) throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        escritor.flush();
+    }
+}
@@ -0,0 +1,42 @@
+package com.libreriaSanSebastian.userService.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formatos de intercambio de usuarios: un objeto JSON por línea, o CSV con encabezado.
+ */
+public enum FormatoArchivo {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    public static final String[] COLUMNAS = {"id", "nombre", "email", "rut", "rolId", "rolNombre"};
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    FormatoArchivo(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static FormatoArchivo de(String formato) {
+        if (formato != null) {
+            for (FormatoArchivo valor : values()) {
+                if (valor.extension.equals(formato.trim().toLowerCase(Locale.ROOT))) {
+                    return valor;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Formato no soportado: " + formato + " (use ndjson o csv)");
+    }
+}
@@ -0,0 +1,119 @@
+package com.libreriaSanSebastian.userService.service;
+
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Siembra roles y usuarios sintéticos para pruebas de rendimiento. El resultado depende sólo de los
+ * parámetros: el usuario con ID {@code n} tiene siempre el nombre {@link #nombre(long)}, el RUT
+ * {@link #rut(long)} y un email único, y el rol sale de una secuencia pseudoaleatoria con la semilla dada.
+ * Escribe con lotes JDBC sin pasar por Hibernate, así que millones de filas se cargan en segundos.
+ */
+@Component
+public class GeneradorDatosSinteticos {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosSinteticos.class);
+
+    /** Cuerpo del RUT del usuario con ID 0; los siguientes son consecutivos. */
+    public static final long RUT_BASE = 10_000_000L;
+
+    private static final int LOTE = 5_000;
+    private static final int AVISO_CADA = 500_000;
+
+    private static final String[] NOMBRES = {
+            "Juan", "María", "José", "Ana", "Pedro", "Camila", "Luis", "Valentina", "Carlos", "Javiera",
+            "Jorge", "Francisca", "Diego", "Constanza", "Felipe", "Catalina", "Matías", "Fernanda", "Sebastián",
+            "Daniela", "Cristóbal", "Isidora", "Tomás", "Antonia", "Nicolás", "Sofía", "Benjamín", "Martina",
+            "Vicente", "Florencia", "Joaquín", "Trinidad", "Ignacio", "Josefa", "Andrés", "Paula", "Rodrigo",
+            "Carolina", "Gonzalo", "Macarena"};
+
+    private static final String[] APELLIDOS = {
+            "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto", "Contreras", "Silva", "Martínez", "Sepúlveda",
+            "Morales", "Rodríguez", "López", "Fuentes", "Hernández", "Torres", "Araya", "Flores", "Espinoza",
+            "Valenzuela", "Castillo", "Tapia", "Reyes", "Gutiérrez", "Castro", "Pizarro", "Álvarez", "Vásquez",
+            "Sánchez", "Fernández", "Ramírez", "Carrasco", "Gómez", "Cortés", "Herrera", "Núñez", "Jara",
+            "Vergara", "Rivera", "Figueroa", "Riquelme", "García", "Miranda", "Bravo", "Vera", "Molina", "Vega",
+            "Campos", "Sandoval", "Orellana", "Zúñiga", "Olivares", "Alarcón", "Gallardo", "Ortiz", "Garrido",
+            "Salazar", "Guzmán", "Henríquez", "Saavedra"};
+
+    private static final String[] DOMINIOS = {"correo.cl", "mail.com", "libreria.cl", "empresa.cl"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta {@code roles} roles y {@code usuarios} usuarios con IDs 1..{@code usuarios}.
+     * La secuencia de IDs se alinea después con {@code SecuenciaUsuariosInitializer#alinear}.
+     *
+     * @throws IllegalStateException si ya hay roles o usuarios: los IDs y RUT generados chocarían con ellos
+     */
+    public long generar(int roles, long usuarios, long semilla) {
+        if (roles < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un rol");
+        }
+        Long existentes = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM roles) + (SELECT COUNT(*) FROM usuarios)", Long.class);
+        if (existentes != null && existentes > 0) {
+            throw new IllegalStateException("La base de datos ya tiene roles o usuarios; el generador necesita tablas vacías");
+        }
+        long inicio = System.nanoTime();
+        List<Long> idsRoles = insertarRoles(roles);
+
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        String sql = "INSERT INTO usuarios (id, nombre, email, email_normalizado, rut, rut_numero, rol_id, version)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        for (long id = 1; id <= usuarios; id++) {
+            String email = email(id);
+            Rut rut = Rut.de(RUT_BASE + id);
+            lote.add(new Object[]{id, nombre(id), email, Usuario.normalizarEmail(email), rut.toString(), rut.getNumero(),
+                    idsRoles.get(aleatorio.nextInt(idsRoles.size()))});
+            if (lote.size() == LOTE || id == usuarios) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+            if (id % AVISO_CADA == 0) {
+                log.info("Datos sintéticos: {} de {} usuarios", id, usuarios);
+            }
+        }
+        log.info("Datos sintéticos: {} roles y {} usuarios generados en {} ms (semilla {})", roles, usuarios,
+                (System.nanoTime() - inicio) / 1_000_000, semilla);
+        return usuarios;
+    }
+
+    // Determinista: el mismo ID genera siempre el mismo nombre
+    public static String nombre(long id) {
+        int a = (int) (id % NOMBRES.length);
+        int b = (int) ((id / NOMBRES.length) % APELLIDOS.length);
+        int c = (int) ((id / (NOMBRES.length * APELLIDOS.length)) % APELLIDOS.length);
+        return NOMBRES[a] + " " + APELLIDOS[b] + " " + APELLIDOS[c];
+    }
+
+    public static String rut(long id) {
+        return Rut.de(RUT_BASE + id).toString();
+    }
+
+    // El ID al final del usuario de correo garantiza que no se repita
+    public static String email(long id) {
+        String[] partes = IndiceBusquedaUsuarios.normalizar(nombre(id)).split(" ");
+        return partes[0] + "." + partes[1] + "." + id + "@" + DOMINIOS[(int) (id % DOMINIOS.length)];
+    }
+
+    private List<Long> insertarRoles(int roles) {
+        List<Object[]> filas = new ArrayList<>(roles);
+        for (int i = 1; i <= roles; i++) {
+            filas.add(new Object[]{String.format("ROL_%03d", i), "Rol sintético " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO roles (nombre, descripcion, version) VALUES (?, ?, 0)", filas);
+        return jdbcTemplate.queryForList("SELECT id FROM roles ORDER BY id", Long.class);
+    }
+}
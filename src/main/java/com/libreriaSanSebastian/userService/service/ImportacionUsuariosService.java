@@ -0,0 +1,342 @@
+package com.libreriaSanSebastian.userService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Importación masiva de usuarios desde CSV o NDJSON. La entrada se lee registro a registro y las filas
+ * válidas se guardan en bloques de {@code importacion.tamano-chunk} con {@link UsuarioService#guardarLote},
+ * cada uno en su propia transacción con inserciones agrupadas; si un bloque falla se reintenta fila a
+ * fila. Las filas rechazadas no detienen la importación: se escriben en un reporte CSV en disco que se
+ * puede descargar hasta que expire.
+ */
+@Service
+public class ImportacionUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionUsuariosService.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private RolService rolService;
+
+    private final int tamanoChunk;
+    private final Cache<String, Path> reportes;
+
+    public ImportacionUsuariosService(@Value("${importacion.tamano-chunk:1000}") int tamanoChunk,
+                                      @Value("${importacion.reportes.ttl:1h}") Duration ttlReportes) {
+        this.tamanoChunk = Math.max(1, Math.min(tamanoChunk, UsuarioService.LIMITE_LOTE));
+        this.reportes = Caffeine.newBuilder()
+                .expireAfterWrite(ttlReportes)
+                .<String, Path>removalListener((id, archivo, causa) -> eliminarArchivo(archivo))
+                .build();
+    }
+
+    public ResultadoImportacion importar(FormatoArchivo formato, InputStream entrada) throws IOException {
+        return importar(formato, entrada, Progreso.NINGUNO);
+    }
+
+    /**
+     * Importa informando el avance (filas leídas y rechazadas) después de cada bloque guardado. Si
+     * {@code progreso} indica cancelación, la lectura se detiene; los bloques ya guardados se mantienen.
+     */
+    public ResultadoImportacion importar(FormatoArchivo formato, InputStream entrada, Progreso progreso) throws IOException {
+        Roles roles = new Roles(rolService.listarTodos());
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        List<Usuario> bloque = new ArrayList<>(tamanoChunk);
+        List<Long> lineas = new ArrayList<>(tamanoChunk);
+
+        try (Reporte reporte = new Reporte();
+             BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024)) {
+            Filas filas = formato == FormatoArchivo.CSV ? new FilasCsv(lector) : new FilasNdjson(lector);
+            Fila fila;
+            while (!progreso.cancelado() && (fila = filas.siguiente()) != null) {
+                resultado.setLeidos(resultado.getLeidos() + 1);
+                try {
+                    bloque.add(aUsuario(fila, roles));
+                    lineas.add(fila.linea);
+                } catch (IllegalArgumentException e) {
+                    reporte.agregar(fila.linea, e.getMessage());
+                }
+                if (bloque.size() == tamanoChunk) {
+                    guardarBloque(bloque, lineas, resultado, reporte);
+                    progreso.avanzar(resultado.getLeidos(), reporte.total);
+                }
+            }
+            if (!progreso.cancelado()) {
+                guardarBloque(bloque, lineas, resultado, reporte);
+            }
+            progreso.avanzar(resultado.getLeidos(), reporte.total);
+
+            resultado.setRechazados(reporte.total);
+            if (reporte.archivo != null) {
+                String id = UUID.randomUUID().toString();
+                reportes.put(id, reporte.archivo);
+                reporte.archivo = null;
+                resultado.setReporte(id);
+            }
+        }
+        log.info("Importación {}: {} filas leídas, {} usuarios creados, {} rechazadas", formato,
+                resultado.getLeidos(), resultado.getCreados(), resultado.getRechazados());
+        return resultado;
+    }
+
+    /**
+     * Archivo CSV con las filas rechazadas de una importación, mientras no haya expirado.
+     */
+    public Optional<Path> buscarReporte(String id) {
+        return Optional.ofNullable(reportes.getIfPresent(id)).filter(Files::exists);
+    }
+
+    private void guardarBloque(List<Usuario> bloque, List<Long> lineas, ResultadoImportacion resultado,
+                               Reporte reporte) throws IOException {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        try {
+            guardar(bloque, lineas, resultado, reporte);
+        } catch (RuntimeException e) {
+            // Por ejemplo un RUT o email insertado por otra petición entre la verificación y el INSERT:
+            // el bloque se revierte completo y se reintenta fila a fila, así sólo se rechazan las que fallan
+            log.warn("Bloque de importación revertido ({} filas), se reintenta fila a fila: {}", bloque.size(), e.getMessage());
+            for (int i = 0; i < bloque.size(); i++) {
+                try {
+                    guardar(List.of(bloque.get(i)), List.of(lineas.get(i)), resultado, reporte);
+                } catch (RuntimeException fila) {
+                    reporte.agregar(lineas.get(i), fila.getMessage());
+                }
+            }
+        }
+        bloque.clear();
+        lineas.clear();
+    }
+
+    private void guardar(List<Usuario> usuarios, List<Long> lineas, ResultadoImportacion resultado,
+                         Reporte reporte) throws IOException {
+        ResultadoLote lote = usuarioService.guardarLote(usuarios);
+        resultado.setCreados(resultado.getCreados() + lote.getCreados().size());
+        for (ResultadoLote.Rechazado rechazado : lote.getRechazados()) {
+            reporte.agregar(lineas.get(rechazado.getIndice()), rechazado.getMotivo());
+        }
+    }
+
+    private static Usuario aUsuario(Fila fila, Roles roles) {
+        Map<String, String> campos = fila.campos;
+        if (campos.containsKey("_error")) {
+            throw new IllegalArgumentException(campos.get("_error"));
+        }
+        Usuario usuario = new Usuario();
+        usuario.setNombre(texto(campos.get("nombre")));
+        usuario.setEmail(texto(campos.get("email")));
+        usuario.setRut(texto(campos.get("rut")));
+        usuario.setRol(roles.resolver(texto(campos.get("rolNombre")), texto(campos.get("rolId"))));
+        return usuario;
+    }
+
+    private static String texto(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static void eliminarArchivo(Path archivo) {
+        try {
+            if (archivo != null) {
+                Files.deleteIfExists(archivo);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el reporte de importación {}", archivo, e);
+        }
+    }
+
+    /**
+     * Roles de la importación, resueltos una sola vez desde la lista en caché en lugar de una consulta por fila.
+     */
+    private static final class Roles {
+        private final Map<String, Rol> porNombre = new HashMap<>();
+        private final Map<Long, Rol> porId = new HashMap<>();
+
+        private Roles(List<Rol> roles) {
+            for (Rol rol : roles) {
+                porNombre.put(rol.getNombre().toLowerCase(Locale.ROOT), rol);
+                porId.put(rol.getId(), rol);
+            }
+        }
+
+        private Rol resolver(String nombre, String id) {
+            if (nombre != null) {
+                Rol rol = porNombre.get(nombre.toLowerCase(Locale.ROOT));
+                if (rol == null) {
+                    throw new IllegalArgumentException("El rol " + nombre + " no existe");
+                }
+                return rol;
+            }
+            if (id != null) {
+                Rol rol;
+                try {
+                    rol = porId.get(Long.valueOf(id));
+                } catch (NumberFormatException e) {
+                    rol = null;
+                }
+                if (rol == null) {
+                    throw new IllegalArgumentException("El rol con ID " + id + " no existe");
+                }
+                return rol;
+            }
+            return null;
+        }
+    }
+
+    private static final class Fila {
+        private final long linea;
+        private final Map<String, String> campos;
+
+        private Fila(long linea, Map<String, String> campos) {
+            this.linea = linea;
+            this.campos = campos;
+        }
+    }
+
+    private interface Filas {
+        Fila siguiente() throws IOException;
+    }
+
+    // La primera línea es el encabezado; las columnas se toman por nombre y las desconocidas se ignoran
+    private static final class FilasCsv implements Filas {
+        private final LectorCsv lector;
+        private List<String> encabezado;
+
+        private FilasCsv(BufferedReader entrada) {
+            this.lector = new LectorCsv(entrada);
+        }
+
+        @Override
+        public Fila siguiente() throws IOException {
+            if (encabezado == null) {
+                encabezado = lector.siguiente();
+                if (encabezado == null) {
+                    return null;
+                }
+                encabezado.replaceAll(columna -> columna.replace("\uFEFF", "").trim());
+            }
+            List<String> valores;
+            try {
+                valores = lector.siguiente();
+            } catch (IllegalArgumentException e) {
+                return new Fila(lector.getLineaRegistro(), Map.of("_error", e.getMessage()));
+            }
+            if (valores == null) {
+                return null;
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < encabezado.size() && i < valores.size(); i++) {
+                campos.put(encabezado.get(i), valores.get(i));
+            }
+            if (valores.size() != encabezado.size()) {
+                campos.put("_error", "Se esperaban " + encabezado.size() + " columnas y hay " + valores.size());
+            }
+            return new Fila(lector.getLineaRegistro(), campos);
+        }
+    }
+
+    private static final class FilasNdjson implements Filas {
+        private final BufferedReader entrada;
+        private long linea;
+
+        private FilasNdjson(BufferedReader entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Fila siguiente() throws IOException {
+            String texto;
+            do {
+                texto = entrada.readLine();
+                linea++;
+                if (texto == null) {
+                    return null;
+                }
+            } while (texto.isBlank());
+
+            Map<String, String> campos = new HashMap<>();
+            try {
+                JsonNode nodo = JSON.readTree(texto);
+                if (!nodo.isObject()) {
+                    throw new IllegalArgumentException("Cada línea debe ser un objeto JSON");
+                }
+                Iterator<Map.Entry<String, JsonNode>> propiedades = nodo.fields();
+                while (propiedades.hasNext()) {
+                    Map.Entry<String, JsonNode> propiedad = propiedades.next();
+                    if (!propiedad.getValue().isNull()) {
+                        campos.put(propiedad.getKey(), propiedad.getValue().asText());
+                    }
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                campos.put("_error", e instanceof JsonProcessingException j ? "JSON inválido: " + j.getOriginalMessage() : e.getMessage());
+            }
+            return new Fila(linea, campos);
+        }
+    }
+
+    /**
+     * Reporte de errores (línea, motivo) escrito en un archivo temporal que se crea con el primer rechazo.
+     */
+    private static final class Reporte implements AutoCloseable {
+        private Path archivo;
+        private Writer escritor;
+        private long total;
+
+        private void agregar(long linea, String motivo) throws IOException {
+            if (escritor == null) {
+                archivo = Files.createTempFile("importacion-usuarios-", ".csv");
+                escritor = new BufferedWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8));
+                escritor.write("linea,motivo\r\n");
+            }
+            escritor.write(linea + ",\"" + String.valueOf(motivo).replace("\"", "\"\"") + "\"\r\n");
+            total++;
+        }
+
+        // Si la importación falló antes de registrar el reporte, el archivo se elimina
+        @Override
+        public void close() throws IOException {
+            if (escritor != null) {
+                escritor.close();
+            }
+            if (archivo != null) {
+                eliminarArchivo(archivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.libreriaSanSebastian.userService.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el nombre de los usuarios para la búsqueda type-ahead.
+ * Los nombres se normalizan (minúsculas, sin tildes) y se separan en palabras; cada palabra de la
+ * consulta se busca como prefijo en un diccionario ordenado y, si no alcanzan los resultados, con
+ * tolerancia a errores de tipeo (distancia de edición 1, o 2 en palabras largas).
+ * El servicio lo mantiene al guardar y eliminar usuarios; {@code IndiceBusquedaInitializer} lo carga al iniciar.
+ * Las escrituras se serializan entre sí; las búsquedas no toman ningún bloqueo.
+ */
+@Component
+public class IndiceBusquedaUsuarios {
+
+    private static final Comparator<Candidato> RELEVANCIA = Comparator.comparingInt((Candidato c) -> -c.puntaje)
+            .thenComparingInt(c -> c.nombre.length())
+            .thenComparingLong(c -> c.id);
+
+    /**
+     * Candidatos que se puntúan como máximo por consulta. Sólo se alcanza con prefijos de una o dos letras
+     * que abarcan buena parte del índice; los conjuntos se recorren del mejor puntaje posible al peor
+     * (palabra exacta, luego prefijos de palabras más cortas, luego variantes), así que lo que queda fuera
+     * son coincidencias de la misma categoría que las revisadas. A cambio la latencia queda acotada.
+     */
+    public static final int MAX_PUNTUADOS = 20_000;
+
+    private static final int MAX_VARIANTES = 20;
+    private static final int MAX_CONJUNTOS_FILTRO = 32;
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private final ConcurrentSkipListMap<String, Set<Long>> porPalabra = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> nombres = new ConcurrentHashMap<>();
+    // IDs que el servicio indexó o quitó mientras corre la carga inicial; ésta no debe pisarlos
+    private final Set<Long> tocadosDuranteLaCarga = ConcurrentHashMap.newKeySet();
+    private volatile boolean listo;
+
+    /**
+     * Agrega o actualiza el nombre indexado de un usuario; con {@code nombre} null lo quita.
+     * Las palabras que se quedan sin usuarios salen del diccionario.
+     */
+    public synchronized void indexar(Long id, String nombre) {
+        if (id == null) {
+            return;
+        }
+        if (!listo) {
+            tocadosDuranteLaCarga.add(id);
+        }
+        aplicar(id, nombre);
+    }
+
+    /**
+     * Indexa una fila leída por la carga inicial, salvo que el servicio haya indexado o quitado ese
+     * usuario después de que empezara la carga: la fila leída puede ser anterior a ese cambio.
+     */
+    public synchronized void cargar(Long id, String nombre) {
+        if (id != null && !tocadosDuranteLaCarga.contains(id)) {
+            aplicar(id, nombre);
+        }
+    }
+
+    private void aplicar(Long id, String nombre) {
+        String normalizado = nombre == null ? null : normalizar(nombre);
+        String anterior = normalizado == null ? nombres.remove(id) : nombres.put(id, normalizado);
+        Set<String> nuevas = normalizado == null ? Set.of() : new LinkedHashSet<>(palabras(normalizado));
+        if (anterior != null) {
+            for (String palabra : palabras(anterior)) {
+                if (!nuevas.contains(palabra)) {
+                    // Sin escrituras concurrentes, nadie agrega a este conjunto entre la comprobación y el retiro
+                    porPalabra.computeIfPresent(palabra, (clave, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+                }
+            }
+        }
+        for (String palabra : nuevas) {
+            porPalabra.computeIfAbsent(palabra, p -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public void quitar(Long id) {
+        indexar(id, null);
+    }
+
+    public synchronized void marcarListo() {
+        listo = true;
+        tocadosDuranteLaCarga.clear();
+    }
+
+    /**
+     * Indica si la carga inicial terminó; antes de eso el servicio busca en la base de datos.
+     */
+    public boolean isListo() {
+        return listo;
+    }
+
+    public int tamano() {
+        return nombres.size();
+    }
+
+    /**
+     * Cantidad de palabras distintas en el diccionario.
+     */
+    public int palabrasIndexadas() {
+        return porPalabra.size();
+    }
+
+    /**
+     * Devuelve hasta {@code maximo} IDs ordenados por relevancia: primero los nombres que comienzan
+     * con la consulta, luego los que tienen más palabras exactas, luego los más cortos.
+     */
+    public List<Long> buscar(String consulta, int maximo) {
+        String normalizada = consulta == null ? "" : normalizar(consulta);
+        List<String> terminos = palabras(normalizada);
+        if (terminos.isEmpty() || maximo <= 0) {
+            return List.of();
+        }
+        Ranking ranking = candidatos(normalizada, terminos, List.of(), maximo);
+        if (ranking.encontrados < maximo) {
+            List<Set<String>> variantes = new ArrayList<>(terminos.size());
+            boolean hayVariantes = false;
+            for (String termino : terminos) {
+                Set<String> parecidas = variantes(termino);
+                hayVariantes |= !parecidas.isEmpty();
+                variantes.add(parecidas);
+            }
+            if (hayVariantes) {
+                ranking = candidatos(normalizada, terminos, variantes, maximo);
+            }
+        }
+        return ranking.ids();
+    }
+
+    public static String normalizar(String texto) {
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(sinTildes.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Los candidatos se puntúan en orden de puntaje posible y sólo los mejores se conservan, en un heap de
+    // tamaño maximo; el recorrido termina cuando ningún conjunto restante puede superar al peor conservado
+    private Ranking candidatos(String consulta, List<String> terminos, List<Set<String>> variantes, int maximo) {
+        // Se recorre el término más selectivo y el resto se verifica contra el nombre de cada candidato
+        int guia = -1;
+        long menor = Long.MAX_VALUE;
+        for (int i = 0; i < terminos.size(); i++) {
+            long estimado = estimar(terminos.get(i), variantes.isEmpty() ? Set.of() : variantes.get(i), menor);
+            if (estimado == 0) {
+                return new Ranking(maximo);
+            }
+            if (estimado < menor) {
+                menor = estimado;
+                guia = i;
+            }
+        }
+
+        // Los demás términos se comprueban primero contra sus conjuntos de IDs (unas pocas búsquedas en
+        // hash); si abarcan demasiadas palabras distintas, se verifican sobre el nombre al puntuar
+        List<List<Set<Long>>> filtros = new ArrayList<>();
+        for (int i = 0; i < terminos.size(); i++) {
+            if (i != guia) {
+                List<Set<Long>> conjuntos = conjuntos(terminos.get(i), variantes.isEmpty() ? Set.of() : variantes.get(i));
+                if (conjuntos.size() <= MAX_CONJUNTOS_FILTRO) {
+                    filtros.add(conjuntos);
+                }
+            }
+        }
+
+        Ranking ranking = new Ranking(maximo);
+        String termino = terminos.get(guia);
+        List<Map.Entry<String, Set<Long>>> guias = guiasOrdenadas(termino, variantes.isEmpty() ? Set.of() : variantes.get(guia));
+        // Un mismo ID sólo puede repetirse si el término guía abarca varias palabras
+        Set<Long> vistos = guias.size() > 1 ? new HashSet<>() : null;
+        // Lo más que aportan los demás términos y el bono por comenzar con la consulta
+        int restoMaximo = 5 + 3 * (terminos.size() - 1);
+        int puntuados = 0;
+        for (Map.Entry<String, Set<Long>> entrada : guias) {
+            String palabra = entrada.getKey();
+            int aporte = palabra.equals(termino) ? 3 : palabra.startsWith(termino) ? 2 : 1;
+            if (ranking.superaA(restoMaximo + aporte)) {
+                break;
+            }
+            for (Long id : entrada.getValue()) {
+                if ((vistos != null && !vistos.add(id)) || !pasaFiltros(id, filtros)) {
+                    continue;
+                }
+                String nombre = nombres.get(id);
+                int puntaje = nombre == null ? -1 : puntaje(nombre, consulta, terminos, variantes);
+                if (puntaje >= 0) {
+                    ranking.agregar(new Candidato(id, nombre, puntaje));
+                }
+                if (++puntuados >= MAX_PUNTUADOS) {
+                    return ranking;
+                }
+            }
+        }
+        return ranking;
+    }
+
+    // Palabra exacta, prefijos de las palabras más cortas primero y al final las variantes
+    private List<Map.Entry<String, Set<Long>>> guiasOrdenadas(String termino, Set<String> variantes) {
+        List<Map.Entry<String, Set<Long>>> prefijos = new ArrayList<>(porPrefijo(termino).entrySet());
+        prefijos.sort(Comparator.comparingInt((Map.Entry<String, Set<Long>> e) -> e.getKey().equals(termino) ? 0 : 1)
+                .thenComparingInt(e -> e.getKey().length()));
+        for (String variante : variantes) {
+            Set<Long> ids = porPalabra.get(variante);
+            if (ids != null) {
+                prefijos.add(Map.entry(variante, ids));
+            }
+        }
+        return prefijos;
+    }
+
+    private static boolean pasaFiltros(Long id, List<List<Set<Long>>> filtros) {
+        for (List<Set<Long>> conjuntos : filtros) {
+            boolean contiene = false;
+            for (Set<Long> ids : conjuntos) {
+                if (ids.contains(id)) {
+                    contiene = true;
+                    break;
+                }
+            }
+            if (!contiene) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Palabra exacta 3, prefijo 2, variante por error de tipeo 1; -1 si algún término no aparece.
+    // Recorre las palabras del nombre (ya normalizado) por posición, sin partirlo: se llama por cada candidato
+    private static int puntaje(String nombre, String consulta, List<String> terminos, List<Set<String>> variantes) {
+        int total = nombre.startsWith(consulta) ? 5 : 0;
+        for (int i = 0; i < terminos.size(); i++) {
+            String termino = terminos.get(i);
+            int mejor = -1;
+            int inicio = 0;
+            while (inicio < nombre.length() && mejor < 3) {
+                int fin = nombre.indexOf(' ', inicio);
+                if (fin < 0) {
+                    fin = nombre.length();
+                }
+                int largo = fin - inicio;
+                if (largo >= termino.length() && nombre.startsWith(termino, inicio)) {
+                    mejor = largo == termino.length() ? 3 : Math.max(mejor, 2);
+                } else if (mejor < 1 && largo > 0 && !variantes.isEmpty()
+                        && variantes.get(i).contains(nombre.substring(inicio, fin))) {
+                    mejor = 1;
+                }
+                inicio = fin + 1;
+            }
+            if (mejor < 0) {
+                return -1;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    private long estimar(String termino, Set<String> variantes, long tope) {
+        long total = 0;
+        for (Set<Long> ids : conjuntos(termino, variantes)) {
+            total += ids.size();
+            if (total >= tope) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // La palabra exacta va primero: en el rango de prefijos es la clave menor
+    private List<Set<Long>> conjuntos(String termino, Set<String> variantes) {
+        List<Set<Long>> conjuntos = new ArrayList<>(porPrefijo(termino).values());
+        for (String variante : variantes) {
+            Set<Long> ids = porPalabra.get(variante);
+            if (ids != null) {
+                conjuntos.add(ids);
+            }
+        }
+        return conjuntos;
+    }
+
+    private NavigableMap<String, Set<Long>> porPrefijo(String prefijo) {
+        return porPalabra.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    private Set<String> variantes(String termino) {
+        if (termino.length() < 4) {
+            return Set.of();
+        }
+        int distancia = termino.length() >= 8 ? 2 : 1;
+        Set<String> variantes = new LinkedHashSet<>();
+        // Se asume correcta la primera letra, lo que limita el recorrido a una parte del diccionario
+        for (Map.Entry<String, Set<Long>> entrada : porPrefijo(termino.substring(0, 1)).entrySet()) {
+            String palabra = entrada.getKey();
+            if (!entrada.getValue().isEmpty() && !palabra.startsWith(termino)
+                    && Math.abs(palabra.length() - termino.length()) <= distancia
+                    && distanciaEdicion(termino, palabra, distancia) <= distancia) {
+                variantes.add(palabra);
+                if (variantes.size() >= MAX_VARIANTES) {
+                    break;
+                }
+            }
+        }
+        return variantes;
+    }
+
+    // Levenshtein con corte temprano cuando la fila completa supera el máximo
+    private static int distanciaEdicion(String a, String b, int maximo) {
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                actual[j] = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+                minimoFila = Math.min(minimoFila, actual[j]);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] temporal = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+        return anterior[b.length()];
+    }
+
+    private static List<String> palabras(String normalizado) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : normalizado.split(" ")) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    // El peor de los conservados queda en la cabeza del heap y es el que sale al superar el máximo
+    private static final class Ranking {
+        private final int maximo;
+        private final PriorityQueue<Candidato> mejores;
+        private int encontrados;
+
+        private Ranking(int maximo) {
+            this.maximo = maximo;
+            this.mejores = new PriorityQueue<>(RELEVANCIA.reversed());
+        }
+
+        // Si ya hay maximo candidatos y el peor tiene más puntaje del indicado, nada con ese puntaje entra
+        private boolean superaA(int puntaje) {
+            return mejores.size() >= maximo && mejores.peek().puntaje > puntaje;
+        }
+
+        private void agregar(Candidato candidato) {
+            encontrados++;
+            if (mejores.size() < maximo) {
+                mejores.add(candidato);
+            } else if (RELEVANCIA.compare(candidato, mejores.peek()) < 0) {
+                mejores.poll();
+                mejores.add(candidato);
+            }
+        }
+
+        private List<Long> ids() {
+            List<Candidato> ordenados = new ArrayList<>(mejores);
+            ordenados.sort(RELEVANCIA);
+            List<Long> ids = new ArrayList<>(ordenados.size());
+            for (Candidato candidato : ordenados) {
+                ids.add(candidato.id);
+            }
+            return ids;
+        }
+    }
+
+    private static final class Candidato {
+        private final long id;
+        private final String nombre;
+        private final int puntaje;
+
+        private Candidato(long id, String nombre, int puntaje) {
+            this.id = id;
+            this.nombre = nombre;
+            this.puntaje = puntaje;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.libreriaSanSebastian.userService.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) que entrega un registro a la vez: campos entre comillas con comas,
+ * comillas duplicadas y saltos de línea. Lleva la cuenta de la línea en que comienza cada registro.
+ */
+final class LectorCsv {
+
+    private final Reader entrada;
+    private final StringBuilder campo = new StringBuilder();
+    private long linea = 1;
+    private long lineaRegistro;
+    private int pendiente = -2;
+
+    LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * Devuelve los campos del siguiente registro, o null al final de la entrada. Las líneas vacías se omiten.
+     *
+     * @throws IllegalArgumentException si el archivo termina dentro de un campo entre comillas
+     */
+    List<String> siguiente() throws IOException {
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        lineaRegistro = linea;
+        boolean entreComillas = false;
+        boolean vacio = true;
+        int c;
+        while ((c = leer()) != -1) {
+            if (entreComillas) {
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        devolver(siguiente);
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+                vacio = false;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                vacio = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        devolver(siguiente);
+                    }
+                }
+                linea++;
+                if (vacio && campo.length() == 0) {
+                    lineaRegistro = linea;
+                    continue;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+                vacio = false;
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Campo entre comillas sin cerrar");
+        }
+        if (vacio && campo.length() == 0) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Línea del archivo en que comenzó el último registro devuelto.
+     */
+    long getLineaRegistro() {
+        return lineaRegistro;
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != -2) {
+            int c = pendiente;
+            pendiente = -2;
+            return c;
+        }
+        return entrada.read();
+    }
+
+    private void devolver(int c) {
+        pendiente = c;
+    }
+}
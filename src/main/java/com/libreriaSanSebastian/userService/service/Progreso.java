@@ -0,0 +1,23 @@
+package com.libreriaSanSebastian.userService.service;
+
+/**
+ * Avance de una operación larga (importación, exportación, eliminación masiva). El servicio lo
+ * informa por bloque y consulta {@link #cancelado()} entre bloques para detenerse sin dejar uno a medias.
+ */
+public interface Progreso {
+
+    Progreso NINGUNO = new Progreso() {
+        @Override
+        public void avanzar(long procesados, long errores) {
+        }
+
+        @Override
+        public boolean cancelado() {
+            return false;
+        }
+    };
+
+    void avanzar(long procesados, long errores);
+
+    boolean cancelado();
+}
@@ -1,36 +1,237 @@
 package com.libreriaSanSebastian.userService.service;
 
+import com.libreriaSanSebastian.userService.config.CacheConfig;
+import com.libreriaSanSebastian.userService.dto.EstadisticasRoles;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.RolConUsuarios;
 import com.libreriaSanSebastian.userService.model.Rol;
 import com.libreriaSanSebastian.userService.repository.RolRepository;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
+@Timed(value = "roles.servicio", description = "Tiempo de cada operación del servicio de roles")
 public class RolService {
 
     @Autowired
     private RolRepository rolRepository;
 
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Cacheable(CacheConfig.ROLES_LISTA)
     public List<Rol> listarTodos() {
         return rolRepository.findAll();
     }
 
+    @Cacheable(CacheConfig.ROLES_PAGINAS)
+    public Pagina<Rol> listarPagina(Long despuesDe, Integer limite) {
+        int tamano = Pagina.normalizarLimite(limite);
+        List<Rol> filas = rolRepository.findByIdGreaterThanOrderByIdAsc(
+                despuesDe == null ? 0L : despuesDe, PageRequest.of(0, tamano + 1));
+        return Pagina.de(filas, tamano, Rol::getId);
+    }
+
+    @Cacheable(CacheConfig.ROLES)
     public Optional<Rol> buscarPorId(Long id) {
         return rolRepository.findById(id);
     }
 
+    @Cacheable(CacheConfig.ROLES_POR_NOMBRE)
     public Optional<Rol> buscarPorNombre(String nombre) {
         return Optional.ofNullable(rolRepository.findByNombre(nombre));
     }
 
+    /**
+     * Cantidad de usuarios de cada rol indicado, con un solo GROUP BY; los roles sin usuarios no aparecen.
+     */
+    public Map<Long, Long> contarUsuarios(Collection<Long> rolIds) {
+        if (rolIds.isEmpty()) {
+            return Map.of();
+        }
+        return aMapa(usuarioRepository.contarPorRoles(rolIds));
+    }
+
+    public long contarUsuarios(Long rolId) {
+        return usuarioRepository.countByRolId(rolId);
+    }
+
+    /**
+     * Usuarios por rol a partir de un GROUP BY sobre {@code usuarios.rol_id}: no se leen filas de usuarios.
+     */
+    public EstadisticasRoles estadisticas() {
+        Map<Long, Long> porRol = aMapa(usuarioRepository.contarPorRol());
+        long sinRol = porRol.getOrDefault(null, 0L);
+        long total = 0;
+        for (long cantidad : porRol.values()) {
+            total += cantidad;
+        }
+        List<RolConUsuarios> roles = new ArrayList<>();
+        for (Rol rol : rolRepository.findAll()) {
+            roles.add(new RolConUsuarios(rol, porRol.getOrDefault(rol.getId(), 0L)));
+        }
+        roles.sort(Comparator.comparingLong(RolConUsuarios::getUsuarioCount).reversed()
+                .thenComparing(r -> r.getRol().getId()));
+        return new EstadisticasRoles(total, sinRol, roles);
+    }
+
+    private static Map<Long, Long> aMapa(List<Object[]> filas) {
+        // HashMap porque la clave null agrupa a los usuarios sin rol
+        Map<Long, Long> conteos = new HashMap<>();
+        for (Object[] fila : filas) {
+            conteos.put((Long) fila[0], ((Number) fila[1]).longValue());
+        }
+        return conteos;
+    }
+
+    // Un cambio de nombre dejaría la entrada antigua apuntando al rol, así que el caché
+    // por nombre se vacía completo; con tan pocos roles recargarlo es trivial.
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.ROLES, key = "#result.id"),
+        evict = {
+            @CacheEvict(cacheNames = CacheConfig.ROLES_POR_NOMBRE, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ROLES_LISTA, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ROLES_PAGINAS, allEntries = true)
+        }
+    )
     public Rol guardar(Rol rol) {
-        return rolRepository.save(rol);
+        Rol guardado = rolRepository.save(rol);
+        if (rol.getId() != null) {
+            invalidarUsuarios(guardado.getId());
+        }
+        return guardado;
+    }
+
+    /**
+     * Aplica un JSON Merge Patch con un único UPDATE condicionado a {@code version}; ver
+     * {@link UsuarioService#actualizarParcial}.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROLES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_POR_NOMBRE, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_LISTA, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_PAGINAS, allEntries = true)
+    })
+    @Transactional
+    public Optional<Rol> actualizarParcial(Long id, Long version, Map<String, Object> cambios) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+            Object valor = cambio.getValue();
+            switch (cambio.getKey()) {
+                case "nombre" -> {
+                    if (!(valor instanceof String nombre) || nombre.isBlank()) {
+                        throw new IllegalArgumentException("El nombre del rol es requerido");
+                    }
+                    campos.put("nombre", nombre);
+                }
+                case "descripcion" -> {
+                    if (valor != null && !(valor instanceof String)) {
+                        throw new IllegalArgumentException("La descripción del rol debe ser texto");
+                    }
+                    campos.put("descripcion", valor);
+                }
+                case "id", "version", "usuarioCount", "_links" -> {
+                    // Vienen de la URL y la precondición, o son parte de la representación
+                }
+                default -> throw new IllegalArgumentException("El campo " + cambio.getKey() + " no se puede modificar");
+            }
+        }
+
+        if (!campos.isEmpty() && rolRepository.actualizarVersionado(Rol.class, id, version, campos) == 0
+                && rolRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Rol.class, id);
+        }
+        Optional<Rol> actualizado = rolRepository.findById(id);
+        if (campos.isEmpty() && actualizado.isPresent() && !actualizado.get().getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(Rol.class, id);
+        }
+        if (!campos.isEmpty() && actualizado.isPresent()) {
+            invalidarUsuarios(id);
+        }
+        return actualizado;
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROLES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_POR_NOMBRE, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_LISTA, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_PAGINAS, allEntries = true)
+    })
+    @Transactional
+    public boolean eliminar(Long id) {
+        boolean eliminado = rolRepository.eliminarPorId(id) > 0;
+        if (eliminado) {
+            invalidarUsuarios(id);
+        }
+        return eliminado;
+    }
+
+    /**
+     * Mueve los usuarios de un rol a otro con un único UPDATE; devuelve cuántos usuarios se movieron.
+     */
+    @Transactional
+    public int reasignarUsuarios(Long origen, Long destino) {
+        validarDestino(origen, destino);
+        return usuarioService.reasignarRol(origen, destino);
+    }
+
+    /**
+     * Elimina el rol moviendo antes sus usuarios a {@code destino}, todo en una transacción.
+     * Devuelve cuántos usuarios se reasignaron, o vacío si el rol no existía.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROLES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_POR_NOMBRE, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_LISTA, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROLES_PAGINAS, allEntries = true)
+    })
+    @Transactional
+    public Optional<Integer> eliminar(Long id, Long destino) {
+        validarDestino(id, destino);
+        int reasignados = usuarioService.reasignarRol(id, destino);
+        if (rolRepository.eliminarPorId(id) == 0) {
+            return Optional.empty();
+        }
+        invalidarUsuarios(id);
+        return Optional.of(reasignados);
+    }
+
+    // Los usuarios en caché llevan el rol embebido, incluida la versión que entra en su ETag
+    private void invalidarUsuarios(Long rolId) {
+        DespuesDelCommit.ejecutar(() -> usuarioCache.invalidarPorRol(rolId));
     }
 
-    public void eliminar(Long id) {
-        rolRepository.deleteById(id);
+    private void validarDestino(Long origen, Long destino) {
+        if (Objects.equals(origen, destino)) {
+            throw new IllegalArgumentException("El rol de destino debe ser distinto del rol de origen");
+        }
+        if (destino == null || !rolRepository.existsById(destino)) {
+            throw new IllegalArgumentException("El rol de destino " + destino + " no existe");
+        }
     }
-}
\ No newline at end of file
+}
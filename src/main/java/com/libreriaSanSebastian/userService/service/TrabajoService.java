@@ -0,0 +1,349 @@
+package com.libreriaSanSebastian.userService.service;
+
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import com.libreriaSanSebastian.userService.repository.TrabajoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta en segundo plano las operaciones masivas sobre usuarios, fuera de los hilos que atienden
+ * peticiones. Los trabajos corren en un pool de {@code trabajos.concurrencia} hilos con una cola acotada
+ * ({@code trabajos.cola}); si la cola está llena el trabajo se rechaza en lugar de acumularse.
+ * La entrada de cada trabajo se copia a {@code trabajos.directorio} antes de encolarlo, y el estado
+ * y el avance se guardan en la tabla {@code trabajos}: al reiniciar, los pendientes se vuelven a encolar
+ * y los que estaban en curso quedan como interrumpidos.
+ */
+@Service
+public class TrabajoService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TrabajoService.class);
+
+    // El avance se guarda como máximo cada este intervalo, además de al terminar
+    private static final long INTERVALO_AVANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long ESPERA_APAGADO_SEGUNDOS = 10;
+    private static final int LARGO_MENSAJE = 500;
+
+    @Autowired
+    private TrabajoRepository trabajoRepository;
+
+    @Autowired
+    private ImportacionUsuariosService importacionService;
+
+    @Autowired
+    private ExportacionUsuariosService exportacionService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    private final ThreadPoolExecutor ejecutor;
+    private final Path directorio;
+    private final Set<Long> cancelaciones = ConcurrentHashMap.newKeySet();
+    private volatile boolean apagando;
+
+    public TrabajoService(@Value("${trabajos.concurrencia:2}") int concurrencia,
+                          @Value("${trabajos.cola:100}") int cola,
+                          @Value("${trabajos.directorio:${java.io.tmpdir}/userService-trabajos}") Path directorio)
+            throws IOException {
+        AtomicInteger hilos = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(concurrencia, concurrencia, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), tarea -> {
+                    Thread hilo = new Thread(tarea, "trabajo-" + hilos.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        this.directorio = Files.createDirectories(directorio);
+    }
+
+    /**
+     * Copia el archivo recibido al directorio de trabajos y encola su importación.
+     */
+    public Trabajo importar(FormatoArchivo formato, InputStream entrada) throws IOException {
+        Trabajo trabajo = trabajoRepository.save(new Trabajo(Trabajo.Tipo.IMPORTACION, formato.getExtension()));
+        try {
+            Files.copy(entrada, archivoEntrada(trabajo.getId()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            fallar(trabajo, "No se pudo recibir el archivo: " + e.getMessage());
+            throw e;
+        }
+        return enviar(trabajo);
+    }
+
+    public Trabajo exportar(FormatoArchivo formato) {
+        return enviar(trabajoRepository.save(new Trabajo(Trabajo.Tipo.EXPORTACION, formato.getExtension())));
+    }
+
+    /**
+     * Encola la eliminación de los usuarios indicados, sin límite de cantidad: se eliminan en
+     * lotes de {@value UsuarioService#LIMITE_LOTE}, cada uno en su propia transacción.
+     */
+    public Trabajo eliminar(List<Long> ids) throws IOException {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID");
+        }
+        Trabajo trabajo = trabajoRepository.save(new Trabajo(Trabajo.Tipo.ELIMINACION, null));
+        try (BufferedWriter escritor = Files.newBufferedWriter(archivoEntrada(trabajo.getId()))) {
+            for (Long id : ids) {
+                if (id != null) {
+                    escritor.write(id.toString());
+                    escritor.newLine();
+                }
+            }
+        } catch (IOException e) {
+            fallar(trabajo, "No se pudo guardar la lista de IDs: " + e.getMessage());
+            throw e;
+        }
+        return enviar(trabajo);
+    }
+
+    public Optional<Trabajo> buscar(Long id) {
+        return trabajoRepository.findById(id);
+    }
+
+    public List<Trabajo> listarRecientes() {
+        return trabajoRepository.findTop50ByOrderByIdDesc();
+    }
+
+    /**
+     * Cancela un trabajo. Uno pendiente no llega a comenzar; uno en curso se detiene al terminar el
+     * bloque actual, y lo ya confirmado se mantiene. Devuelve el trabajo con su estado actual.
+     */
+    public Optional<Trabajo> cancelar(Long id) {
+        Optional<Trabajo> trabajo = trabajoRepository.findById(id);
+        if (trabajo.isEmpty() || trabajo.get().getEstado().isTerminado()) {
+            return trabajo;
+        }
+        if (trabajo.get().getEstado() == Trabajo.Estado.EN_CURSO) {
+            cancelaciones.add(id);
+        } else if (trabajoRepository.terminar(id, Trabajo.Estado.CANCELADO, "Cancelado antes de comenzar",
+                null, Instant.now()) == 0) {
+            // Comenzó entre la lectura y el UPDATE
+            cancelaciones.add(id);
+        }
+        return trabajoRepository.findById(id);
+    }
+
+    /**
+     * Archivo generado por una exportación completada.
+     */
+    public Optional<Path> buscarResultado(Trabajo trabajo) {
+        return Optional.of(trabajo)
+                .filter(t -> t.getTipo() == Trabajo.Tipo.EXPORTACION && t.getEstado() == Trabajo.Estado.COMPLETADO)
+                .map(this::archivoResultado)
+                .filter(Files::exists);
+    }
+
+    /**
+     * Retoma el estado guardado al iniciar el servicio. Supone una sola instancia por base de datos.
+     */
+    public void recuperar() {
+        for (Trabajo trabajo : trabajoRepository.findByEstadoIn(EnumSet.of(Trabajo.Estado.PENDIENTE, Trabajo.Estado.EN_CURSO))) {
+            boolean sinEntrada = trabajo.getTipo() != Trabajo.Tipo.EXPORTACION && !Files.exists(archivoEntrada(trabajo.getId()));
+            if (trabajo.getEstado() == Trabajo.Estado.EN_CURSO || sinEntrada) {
+                trabajoRepository.terminar(trabajo.getId(), Trabajo.Estado.INTERRUMPIDO,
+                        "El servicio se reinició durante el trabajo; los bloques ya confirmados se mantienen",
+                        null, Instant.now());
+                eliminarArchivo(archivoEntrada(trabajo.getId()));
+            } else {
+                try {
+                    enviar(trabajo);
+                } catch (RejectedExecutionException e) {
+                    log.warn("No se pudo volver a encolar el trabajo {}", trabajo.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trabajos.en.curso", ejecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Trabajos en segundo plano ejecutándose")
+                .register(registry);
+        Gauge.builder("trabajos.en.cola", ejecutor, e -> e.getQueue().size())
+                .description("Trabajos en segundo plano esperando un hilo")
+                .register(registry);
+    }
+
+    // Los trabajos en curso se detienen al terminar su bloque y quedan como interrumpidos
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        apagando = true;
+        ejecutor.shutdown();
+        if (!ejecutor.awaitTermination(ESPERA_APAGADO_SEGUNDOS, TimeUnit.SECONDS)) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private Trabajo enviar(Trabajo trabajo) {
+        try {
+            ejecutor.execute(() -> ejecutar(trabajo.getId()));
+        } catch (RejectedExecutionException e) {
+            fallar(trabajo, "La cola de trabajos está llena");
+            throw e;
+        }
+        return trabajo;
+    }
+
+    void ejecutar(Long id) {
+        try {
+            if (trabajoRepository.iniciar(id, Instant.now()) == 0) {
+                // Cancelado mientras esperaba en la cola
+                eliminarArchivo(archivoEntrada(id));
+                return;
+            }
+            Trabajo trabajo = trabajoRepository.findById(id).orElseThrow();
+            Avance avance = new Avance(id);
+            try {
+                String mensaje;
+                String reporte = null;
+                switch (trabajo.getTipo()) {
+                    case IMPORTACION -> {
+                        ResultadoImportacion resultado = importar(trabajo, avance);
+                        mensaje = resultado.getCreados() + " usuarios creados, " + resultado.getRechazados() + " filas rechazadas";
+                        reporte = resultado.getReporte();
+                    }
+                    case EXPORTACION -> mensaje = exportar(trabajo, avance) + " usuarios exportados";
+                    default -> mensaje = eliminar(trabajo, avance) + " usuarios eliminados";
+                }
+                avance.guardar();
+                Trabajo.Estado estado = !avance.detenido ? Trabajo.Estado.COMPLETADO
+                        : apagando ? Trabajo.Estado.INTERRUMPIDO : Trabajo.Estado.CANCELADO;
+                if (estado != Trabajo.Estado.COMPLETADO && trabajo.getTipo() == Trabajo.Tipo.EXPORTACION) {
+                    eliminarArchivo(archivoResultado(trabajo));
+                }
+                trabajoRepository.terminar(id, estado, mensaje, reporte, Instant.now());
+                log.info("Trabajo {} ({}) {}: {}", id, trabajo.getTipo(), estado, mensaje);
+            } catch (Exception e) {
+                log.error("Trabajo {} ({}) falló", id, trabajo.getTipo(), e);
+                avance.guardar();
+                if (trabajo.getTipo() == Trabajo.Tipo.EXPORTACION) {
+                    eliminarArchivo(archivoResultado(trabajo));
+                }
+                fallar(trabajo, String.valueOf(e.getMessage()));
+            }
+        } finally {
+            cancelaciones.remove(id);
+            eliminarArchivo(archivoEntrada(id));
+        }
+    }
+
+    private ResultadoImportacion importar(Trabajo trabajo, Avance avance) throws IOException {
+        try (InputStream entrada = Files.newInputStream(archivoEntrada(trabajo.getId()))) {
+            return importacionService.importar(FormatoArchivo.de(trabajo.getFormato()), entrada, avance);
+        }
+    }
+
+    private long exportar(Trabajo trabajo, Avance avance) throws IOException {
+        try (OutputStream salida = Files.newOutputStream(archivoResultado(trabajo))) {
+            return exportacionService.exportar(FormatoArchivo.de(trabajo.getFormato()), salida, avance);
+        }
+    }
+
+    private long eliminar(Trabajo trabajo, Avance avance) throws IOException {
+        long procesados = 0;
+        long eliminados = 0;
+        List<Long> lote = new ArrayList<>(UsuarioService.LIMITE_LOTE);
+        try (BufferedReader lector = Files.newBufferedReader(archivoEntrada(trabajo.getId()), StandardCharsets.UTF_8)) {
+            String linea;
+            while (!avance.cancelado() && (linea = lector.readLine()) != null) {
+                lote.add(Long.valueOf(linea));
+                if (lote.size() == UsuarioService.LIMITE_LOTE) {
+                    eliminados += usuarioService.eliminarLote(lote);
+                    procesados += lote.size();
+                    lote.clear();
+                    avance.avanzar(procesados, 0);
+                }
+            }
+        }
+        if (!lote.isEmpty() && !avance.cancelado()) {
+            eliminados += usuarioService.eliminarLote(lote);
+            procesados += lote.size();
+        }
+        avance.avanzar(procesados, 0);
+        return eliminados;
+    }
+
+    private void fallar(Trabajo trabajo, String mensaje) {
+        String recortado = mensaje.length() > LARGO_MENSAJE ? mensaje.substring(0, LARGO_MENSAJE) : mensaje;
+        trabajoRepository.terminar(trabajo.getId(), Trabajo.Estado.FALLIDO, recortado, null, Instant.now());
+        eliminarArchivo(archivoEntrada(trabajo.getId()));
+    }
+
+    private Path archivoEntrada(Long id) {
+        return directorio.resolve("trabajo-" + id + ".entrada");
+    }
+
+    private Path archivoResultado(Trabajo trabajo) {
+        return directorio.resolve("trabajo-" + trabajo.getId() + "." + trabajo.getFormato());
+    }
+
+    private static void eliminarArchivo(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}", archivo, e);
+        }
+    }
+
+    private final class Avance implements Progreso {
+        private final Long id;
+        private long procesados;
+        private long errores;
+        private long ultimoGuardado = System.nanoTime();
+        // El servicio vio la cancelación y dejó de procesar
+        private boolean detenido;
+
+        private Avance(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void avanzar(long procesados, long errores) {
+            this.procesados = procesados;
+            this.errores = errores;
+            if (System.nanoTime() - ultimoGuardado >= INTERVALO_AVANCE_NANOS) {
+                guardar();
+            }
+        }
+
+        @Override
+        public boolean cancelado() {
+            detenido |= apagando || cancelaciones.contains(id);
+            return detenido;
+        }
+
+        private void guardar() {
+            trabajoRepository.actualizarAvance(id, procesados, errores);
+            ultimoGuardado = System.nanoTime();
+        }
+    }
+}
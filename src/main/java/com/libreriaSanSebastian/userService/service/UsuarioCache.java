@@ -0,0 +1,320 @@
+package com.libreriaSanSebastian.userService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.libreriaSanSebastian.userService.dto.EstadisticasCache;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché cercano de usuarios. Cada usuario se guarda una sola vez por ID y se indexa además
+ * por RUT y por email normalizado, de modo que todas las búsquedas comparten la misma entrada.
+ * El nombre no es único: sólo una búsqueda por nombre (que devuelve el de menor ID) lo registra como clave.
+ * Las búsquedas sin resultado se recuerdan por un tiempo corto (caché negativo).
+ * Sus contadores se publican como métricas {@code usuarios.cache.*}.
+ *
+ * <p>Cada invalidación avanza una generación y la anota en el usuario o rol afectado. Una carga
+ * que empezó antes (y pudo leer la fila anterior al commit) se descarta en lugar de quedar en caché
+ * hasta el TTL. Los usuarios se guardan y se entregan como copias: quien los modifica no altera la entrada.
+ */
+@Component
+public class UsuarioCache implements MeterBinder {
+
+    public enum TipoClave { ID, RUT, NOMBRE, EMAIL }
+
+    private final Cache<Long, Usuario> porId;
+    private final ConcurrentMap<String, Long> porRut = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> porNombre = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> porEmail = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> negativos;
+
+    // Una carga que tarde más que esta ventana ya no ve las invalidaciones ocurridas durante ella
+    private static final Duration VENTANA_CARGA = Duration.ofMinutes(1);
+
+    private final AtomicLong generacion = new AtomicLong();
+    private final Cache<Long, Long> usuariosInvalidados;
+    private final Cache<Long, Long> rolesInvalidados;
+    private volatile long invalidacionTotal;
+
+    private final Map<TipoClave, LongAdder> aciertos = new EnumMap<>(TipoClave.class);
+    private final Map<TipoClave, LongAdder> fallos = new EnumMap<>(TipoClave.class);
+
+    public UsuarioCache(@Value("${cache.usuarios.max-size:10000}") long maxSize,
+                        @Value("${cache.usuarios.ttl:10m}") Duration ttl,
+                        @Value("${cache.usuarios.ttl-negativo:30s}") Duration ttlNegativo) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // Se ejecuta de forma síncrona al desalojar por tamaño o expiración
+                .<Long, Usuario>evictionListener((id, usuario, causa) -> desindexar(usuario))
+                .build();
+        this.negativos = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlNegativo)
+                .build();
+        this.usuariosInvalidados = Caffeine.newBuilder().expireAfterWrite(VENTANA_CARGA).build();
+        this.rolesInvalidados = Caffeine.newBuilder().expireAfterWrite(VENTANA_CARGA).build();
+        for (TipoClave tipo : TipoClave.values()) {
+            aciertos.put(tipo, new LongAdder());
+            fallos.put(tipo, new LongAdder());
+        }
+    }
+
+    /**
+     * Devuelve el usuario asociado a la clave desde el caché o, si no está, lo obtiene
+     * con {@code cargador} y guarda el resultado (también cuando no existe).
+     */
+    public Optional<Usuario> buscar(TipoClave tipo, Object clave, Supplier<Optional<Usuario>> cargador) {
+        if (clave == null) {
+            return cargador.get();
+        }
+        Usuario enCache = obtener(tipo, clave);
+        if (enCache != null) {
+            aciertos.get(tipo).increment();
+            return Optional.of(copiar(enCache));
+        }
+        String claveNegativa = claveNegativa(tipo, clave);
+        if (negativos.getIfPresent(claveNegativa) != null) {
+            aciertos.get(tipo).increment();
+            return Optional.empty();
+        }
+
+        fallos.get(tipo).increment();
+        long desde = generacion();
+        Optional<Usuario> cargado = cargador.get();
+        if (cargado.isPresent()) {
+            if (registrar(cargado.get(), desde) && tipo == TipoClave.NOMBRE) {
+                porNombre.put((String) clave, cargado.get().getId());
+            }
+        } else {
+            negativos.put(claveNegativa, Boolean.TRUE);
+            // Un alta confirmada durante la carga podría ser justo la que no se encontró
+            if (generacion.get() != desde) {
+                negativos.invalidate(claveNegativa);
+            }
+        }
+        return cargado;
+    }
+
+    /**
+     * Devuelve el usuario si ya está en caché, sin cargarlo; se usa en las búsquedas múltiples,
+     * que resuelven todas las claves ausentes con una sola consulta.
+     */
+    public Usuario obtenerSiPresente(TipoClave tipo, Object clave) {
+        Usuario enCache = clave == null ? null : obtener(tipo, clave);
+        (enCache != null ? aciertos : fallos).get(tipo).increment();
+        return enCache == null ? null : copiar(enCache);
+    }
+
+    /**
+     * Generación actual; se lee antes de cargar usuarios que luego se pasan a {@link #registrar}.
+     */
+    public long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Guarda en caché una copia de un usuario cargado completo (con su rol) e indexa su RUT y su email,
+     * salvo que el usuario o su rol se hayan invalidado después de la generación {@code desde}.
+     * Devuelve si quedó en caché.
+     */
+    public boolean registrar(Usuario usuario, long desde) {
+        if (usuario.getId() == null || invalidadoDespuesDe(usuario, desde)) {
+            return false;
+        }
+        usuario = copiar(usuario);
+        Usuario anterior = porId.asMap().put(usuario.getId(), usuario);
+        if (anterior != null) {
+            desindexar(anterior);
+        }
+        if (usuario.getRut() != null) {
+            porRut.put(usuario.getRut(), usuario.getId());
+        }
+        if (usuario.getEmail() != null) {
+            porEmail.put(Usuario.normalizarEmail(usuario.getEmail()), usuario.getId());
+        }
+        // Se vuelve a comprobar después de guardar: una invalidación anota la generación antes de
+        // quitar la entrada, así que o la quita ella o se ve aquí
+        if (invalidadoDespuesDe(usuario, desde)) {
+            if (porId.asMap().remove(usuario.getId(), usuario)) {
+                desindexar(usuario);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Descarta la entrada del usuario (con sus índices por RUT, nombre y email anteriores) y
+     * las búsquedas negativas que ahora podrían encontrarlo.
+     */
+    public void invalidar(Usuario usuario) {
+        if (usuario.getId() != null) {
+            invalidar(usuario.getId());
+            negativos.invalidate(claveNegativa(TipoClave.ID, usuario.getId()));
+        }
+        if (usuario.getRut() != null) {
+            negativos.invalidate(claveNegativa(TipoClave.RUT, usuario.getRut()));
+        }
+        if (usuario.getNombre() != null) {
+            // Con este nombre, el usuario puede ser ahora el de menor ID entre los homónimos
+            porNombre.remove(usuario.getNombre());
+            negativos.invalidate(claveNegativa(TipoClave.NOMBRE, usuario.getNombre()));
+        }
+        if (usuario.getEmail() != null) {
+            negativos.invalidate(claveNegativa(TipoClave.EMAIL, Usuario.normalizarEmail(usuario.getEmail())));
+        }
+    }
+
+    public void invalidar(Long id) {
+        usuariosInvalidados.put(id, generacion.incrementAndGet());
+        Usuario anterior = porId.asMap().remove(id);
+        if (anterior != null) {
+            desindexar(anterior);
+        }
+    }
+
+    /**
+     * Descarta los usuarios del rol indicado: llevan el rol embebido y quedarían con su nombre o
+     * versión anteriores, o apuntando a un rol eliminado.
+     */
+    public void invalidarPorRol(Long rolId) {
+        rolesInvalidados.put(rolId, generacion.incrementAndGet());
+        for (Usuario usuario : porId.asMap().values()) {
+            if (usuario.getRol() != null && Objects.equals(rolId, usuario.getRol().getId())) {
+                invalidar(usuario.getId());
+            }
+        }
+    }
+
+    public void invalidarTodo() {
+        invalidacionTotal = generacion.incrementAndGet();
+        porId.invalidateAll();
+        porRut.clear();
+        porNombre.clear();
+        porEmail.clear();
+        negativos.invalidateAll();
+    }
+
+    public List<EstadisticasCache> estadisticas() {
+        CacheStats stats = porId.stats();
+        List<EstadisticasCache> estadisticas = new ArrayList<>();
+        for (TipoClave tipo : TipoClave.values()) {
+            long hits = aciertos.get(tipo).sum();
+            long misses = fallos.get(tipo).sum();
+            long total = hits + misses;
+            estadisticas.add(new EstadisticasCache("usuarios." + tipo.name().toLowerCase(), hits, misses,
+                    stats.evictionCount(), total == 0 ? 1.0 : (double) hits / total, porId.estimatedSize()));
+        }
+        return estadisticas;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TipoClave tipo : TipoClave.values()) {
+            String clave = tipo.name().toLowerCase();
+            FunctionCounter.builder("usuarios.cache.gets", aciertos.get(tipo), LongAdder::sum)
+                    .tags("clave", clave, "result", "hit")
+                    .description("Búsquedas resueltas desde el caché de usuarios")
+                    .register(registry);
+            FunctionCounter.builder("usuarios.cache.gets", fallos.get(tipo), LongAdder::sum)
+                    .tags("clave", clave, "result", "miss")
+                    .description("Búsquedas que tuvieron que ir a la base de datos")
+                    .register(registry);
+        }
+        FunctionCounter.builder("usuarios.cache.evictions", porId, c -> c.stats().evictionCount())
+                .register(registry);
+        Gauge.builder("usuarios.cache.size", porId, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    private Usuario obtener(TipoClave tipo, Object clave) {
+        switch (tipo) {
+            case ID:
+                return porId.getIfPresent((Long) clave);
+            case RUT: {
+                Long id = porRut.get((String) clave);
+                Usuario usuario = id == null ? null : porId.getIfPresent(id);
+                return usuario != null && clave.equals(usuario.getRut()) ? usuario : null;
+            }
+            case NOMBRE: {
+                Long id = porNombre.get((String) clave);
+                Usuario usuario = id == null ? null : porId.getIfPresent(id);
+                return usuario != null && clave.equals(usuario.getNombre()) ? usuario : null;
+            }
+            case EMAIL: {
+                Long id = porEmail.get((String) clave);
+                Usuario usuario = id == null ? null : porId.getIfPresent(id);
+                return usuario != null && clave.equals(Usuario.normalizarEmail(usuario.getEmail())) ? usuario : null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private boolean invalidadoDespuesDe(Usuario usuario, long desde) {
+        if (invalidacionTotal > desde) {
+            return true;
+        }
+        Long porUsuario = usuariosInvalidados.getIfPresent(usuario.getId());
+        if (porUsuario != null && porUsuario > desde) {
+            return true;
+        }
+        Long porRol = usuario.getRol() == null ? null : rolesInvalidados.getIfPresent(usuario.getRol().getId());
+        return porRol != null && porRol > desde;
+    }
+
+    private static Usuario copiar(Usuario usuario) {
+        Rol rol = usuario.getRol();
+        Rol copiaRol = null;
+        if (rol != null) {
+            copiaRol = new Rol(rol.getId(), rol.getNombre(), rol.getDescripcion());
+            copiaRol.setVersion(rol.getVersion());
+        }
+        Usuario copia = new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getRut(), copiaRol);
+        copia.setEmailNormalizado(usuario.getEmailNormalizado());
+        copia.setRutNumero(usuario.getRutNumero());
+        copia.setVersion(usuario.getVersion());
+        return copia;
+    }
+
+    private void desindexar(Usuario usuario) {
+        if (usuario == null) {
+            return;
+        }
+        if (usuario.getRut() != null) {
+            porRut.remove(usuario.getRut(), usuario.getId());
+        }
+        if (usuario.getNombre() != null) {
+            porNombre.remove(usuario.getNombre(), usuario.getId());
+        }
+        if (usuario.getEmail() != null) {
+            porEmail.remove(Usuario.normalizarEmail(usuario.getEmail()), usuario.getId());
+        }
+    }
+
+    private static String claveNegativa(TipoClave tipo, Object clave) {
+        return tipo.name() + ':' + Objects.toString(clave);
+    }
+}
@@ -1,40 +1,444 @@
 package com.libreriaSanSebastian.userService.service;
 
+import com.libreriaSanSebastian.userService.dto.BusquedaMultiple;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Rut;
 import com.libreriaSanSebastian.userService.model.Usuario;
 import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import com.libreriaSanSebastian.userService.service.UsuarioCache.TipoClave;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "usuarios.servicio", description = "Tiempo de cada operación del servicio de usuarios")
 public class UsuarioService {
 
+    public static final int LIMITE_LOTE = 1000;
+    public static final int LIMITE_BUSQUEDA_MULTIPLE = 200;
+    public static final int LIMITE_BUSQUEDA_TEXTO = 500;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private IndiceBusquedaUsuarios indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoChunk = 50;
+
     public List<Usuario> listarTodos() {
         return usuarioRepository.findAll();
     }
 
+    public Pagina<Usuario> listarPagina(Long despuesDe, Integer limite) {
+        int tamano = Pagina.normalizarLimite(limite);
+        List<Usuario> filas = usuarioRepository.findByIdGreaterThanOrderByIdAsc(
+                despuesDe == null ? 0L : despuesDe, PageRequest.of(0, tamano + 1));
+        return Pagina.de(filas, tamano, Usuario::getId);
+    }
+
+    /**
+     * Página de los usuarios de un rol, ordenada por ID a partir de {@code despuesDe}.
+     */
+    public Pagina<Usuario> listarPorRol(Long rolId, Long despuesDe, Integer limite) {
+        int tamano = Pagina.normalizarLimite(limite);
+        List<Usuario> filas = usuarioRepository.findByRolIdAndIdGreaterThanOrderByIdAsc(
+                rolId, despuesDe == null ? 0L : despuesDe, PageRequest.of(0, tamano + 1));
+        return Pagina.de(filas, tamano, Usuario::getId);
+    }
+
+    /**
+     * Página de resúmenes leída con una proyección en una transacción de sólo lectura; las búsquedas
+     * de resumen no pasan por la caché de usuarios, que guarda entidades completas.
+     */
+    @Transactional(readOnly = true)
+    public Pagina<UsuarioResumen> listarResumenes(Long despuesDe, Integer limite) {
+        int tamano = Pagina.normalizarLimite(limite);
+        List<UsuarioResumen> filas = usuarioRepository.findResumenesDespuesDe(
+                despuesDe == null ? 0L : despuesDe, PageRequest.of(0, tamano + 1));
+        return Pagina.de(filas, tamano, UsuarioResumen::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UsuarioResumen> buscarResumenPorId(Long id) {
+        return usuarioRepository.findResumenById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UsuarioResumen> buscarResumenPorRut(String rut) {
+        return usuarioRepository.findResumenByRutNumero(Rut.parse(rut).getNumero());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UsuarioResumen> buscarResumenPorEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("El email es requerido");
+        }
+        return usuarioRepository.findResumenByEmailNormalizado(Usuario.normalizarEmail(email));
+    }
+
     public Optional<Usuario> buscarPorId(Long id) {
-        return usuarioRepository.findById(id);
+        return usuarioCache.buscar(TipoClave.ID, id, () -> usuarioRepository.findById(id));
     }
 
     public Optional<Usuario> buscarPorNombre(String nombre) {
-        return Optional.ofNullable(usuarioRepository.findByNombre(nombre));
+        return usuarioCache.buscar(TipoClave.NOMBRE, nombre,
+                () -> Optional.ofNullable(usuarioRepository.findFirstByNombreOrderByIdAsc(nombre)));
     }
 
+    /**
+     * Busca por email sin distinguir mayúsculas ni espacios al inicio o al final.
+     */
+    public Optional<Usuario> buscarPorEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("El email es requerido");
+        }
+        String normalizado = Usuario.normalizarEmail(email);
+        return usuarioCache.buscar(TipoClave.EMAIL, normalizado,
+                () -> Optional.ofNullable(usuarioRepository.findByEmailNormalizado(normalizado)));
+    }
+
+    /**
+     * Búsqueda type-ahead por nombre, ordenada por relevancia. {@code desde} es la posición del
+     * primer resultado; se pueden recorrer hasta {@value #LIMITE_BUSQUEDA_TEXTO} resultados.
+     */
+    public Pagina<Usuario> buscarPorTexto(String texto, Integer desde, Integer limite) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("El texto a buscar es requerido");
+        }
+        int tamano = Pagina.normalizarLimite(limite);
+        int inicio = desde == null ? 0 : Math.max(0, desde);
+        int hasta = Math.min(inicio + tamano, LIMITE_BUSQUEDA_TEXTO);
+        if (inicio >= hasta) {
+            return new Pagina<>(List.of(), null, tamano);
+        }
+
+        List<Usuario> resultados;
+        boolean haySiguiente;
+        if (indiceBusqueda.isListo()) {
+            List<Long> ids = indiceBusqueda.buscar(texto, hasta + 1);
+            haySiguiente = ids.size() > hasta;
+            resultados = ids.size() <= inicio ? List.of()
+                    : buscarPorIds(ids.subList(inicio, Math.min(hasta, ids.size()))).getEncontrados();
+        } else {
+            List<Usuario> filas = usuarioRepository.findByNombreStartingWithOrderByNombreAscIdAsc(
+                    texto.trim(), PageRequest.of(0, hasta + 1));
+            haySiguiente = filas.size() > hasta;
+            resultados = filas.size() <= inicio ? List.of() : filas.subList(inicio, Math.min(hasta, filas.size()));
+        }
+        return new Pagina<>(resultados, haySiguiente && hasta < LIMITE_BUSQUEDA_TEXTO ? (long) hasta : null, tamano);
+    }
+
+    /**
+     * Acepta el RUT en cualquier formato; uno con dígito verificador incorrecto se rechaza con
+     * {@link IllegalArgumentException} sin consultar la base de datos.
+     */
     public Optional<Usuario> buscarPorRut(String rut) {
-        return Optional.ofNullable(usuarioRepository.findByRut(rut));
+        Rut normalizado = Rut.parse(rut);
+        return usuarioCache.buscar(TipoClave.RUT, normalizado.toString(),
+                () -> Optional.ofNullable(usuarioRepository.findByRutNumero(normalizado.getNumero())));
+    }
+
+    /**
+     * Resuelve varios usuarios por ID: los que están en caché se toman de ahí y el resto se
+     * obtiene con una sola consulta IN. El resultado respeta el orden de la petición.
+     */
+    public BusquedaMultiple<Usuario> buscarPorIds(List<Long> ids) {
+        return buscarVarios(ids, TipoClave.ID, Usuario::getId, usuarioRepository::findByIdIn);
+    }
+
+    public BusquedaMultiple<Usuario> buscarPorRuts(List<String> ruts) {
+        List<String> normalizados = new ArrayList<>(ruts.size());
+        for (String rut : ruts) {
+            normalizados.add(rut == null ? null : Rut.parse(rut).toString());
+        }
+        return buscarVarios(normalizados, TipoClave.RUT, Usuario::getRut,
+                pendientes -> usuarioRepository.findByRutNumeroIn(pendientes.stream()
+                        .map(rut -> Rut.parse(rut).getNumero())
+                        .collect(Collectors.toList())));
+    }
+
+    private <K> BusquedaMultiple<Usuario> buscarVarios(List<K> claves, TipoClave tipo, Function<Usuario, K> clave,
+                                                       Function<Collection<K>, List<Usuario>> consulta) {
+        Set<K> unicas = new LinkedHashSet<>(claves);
+        unicas.remove(null);
+        if (unicas.size() > LIMITE_BUSQUEDA_MULTIPLE) {
+            throw new IllegalArgumentException("No se pueden buscar más de " + LIMITE_BUSQUEDA_MULTIPLE + " usuarios a la vez");
+        }
+
+        Map<K, Usuario> encontrados = new HashMap<>();
+        List<K> pendientes = new ArrayList<>();
+        for (K k : unicas) {
+            Usuario enCache = usuarioCache.obtenerSiPresente(tipo, k);
+            if (enCache != null) {
+                encontrados.put(k, enCache);
+            } else {
+                pendientes.add(k);
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            long desde = usuarioCache.generacion();
+            for (Usuario usuario : consulta.apply(pendientes)) {
+                encontrados.put(clave.apply(usuario), usuario);
+                usuarioCache.registrar(usuario, desde);
+            }
+        }
+
+        List<Usuario> ordenados = new ArrayList<>();
+        List<String> noEncontrados = new ArrayList<>();
+        for (K k : unicas) {
+            Usuario usuario = encontrados.get(k);
+            if (usuario != null) {
+                ordenados.add(usuario);
+            } else {
+                noEncontrados.add(String.valueOf(k));
+            }
+        }
+        return new BusquedaMultiple<>(ordenados, noEncontrados);
     }
 
     public Usuario guardar(Usuario usuario) {
-        return usuarioRepository.save(usuario);
+        usuario.setRut(Rut.parse(usuario.getRut()).toString());
+        Usuario guardado = usuarioRepository.save(usuario);
+        // La próxima lectura vuelve a cargar el usuario (con su rol) desde la base de datos
+        DespuesDelCommit.ejecutar(() -> {
+            usuarioCache.invalidar(guardado);
+            indiceBusqueda.indexar(guardado.getId(), guardado.getNombre());
+        });
+        return guardado;
+    }
+
+    /**
+     * Aplica un JSON Merge Patch con un único UPDATE de las columnas presentes en {@code cambios},
+     * condicionado a que el usuario siga en {@code version}. Devuelve vacío si el usuario no existe y
+     * lanza {@link ObjectOptimisticLockingFailureException} si otra petición lo modificó antes.
+     */
+    @Transactional
+    public Optional<Usuario> actualizarParcial(Long id, Long version, Map<String, Object> cambios) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+            Object valor = cambio.getValue();
+            switch (cambio.getKey()) {
+                case "nombre" -> campos.put("nombre", requerido(valor, "El nombre del usuario es requerido"));
+                case "email" -> {
+                    String email = requerido(valor, "El email del usuario es requerido");
+                    campos.put("email", email);
+                    campos.put("emailNormalizado", Usuario.normalizarEmail(email));
+                }
+                case "rut" -> {
+                    Rut rut = Rut.parse(requerido(valor, "El RUT del usuario es requerido"));
+                    campos.put("rut", rut.toString());
+                    campos.put("rutNumero", rut.getNumero());
+                }
+                case "rol" -> campos.put("rol", valor == null ? null : entityManager.getReference(Rol.class, idDeRol(valor)));
+                case "id", "version", "_links" -> {
+                    // El ID y la versión vienen de la URL y la precondición; los enlaces son de la representación
+                }
+                default -> throw new IllegalArgumentException("El campo " + cambio.getKey() + " no se puede modificar");
+            }
+        }
+
+        if (!campos.isEmpty() && usuarioRepository.actualizarVersionado(Usuario.class, id, version, campos) == 0
+                && usuarioRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, id);
+        }
+        Optional<Usuario> actualizado = usuarioRepository.findById(id);
+        if (campos.isEmpty() && actualizado.isPresent() && !actualizado.get().getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, id);
+        }
+        actualizado.ifPresent(usuario -> DespuesDelCommit.ejecutar(() -> {
+            usuarioCache.invalidar(usuario);
+            indiceBusqueda.indexar(usuario.getId(), usuario.getNombre());
+        }));
+        return actualizado;
+    }
+
+    private static String requerido(Object valor, String mensaje) {
+        if (!(valor instanceof String texto) || texto.isBlank()) {
+            throw new IllegalArgumentException(mensaje);
+        }
+        return texto;
+    }
+
+    // El rol se indica como en la representación: {"rol": {"id": 2}}
+    private static Long idDeRol(Object valor) {
+        if (valor instanceof Map<?, ?> rol && rol.get("id") instanceof Number id) {
+            return id.longValue();
+        }
+        throw new IllegalArgumentException("El rol debe indicarse como {\"id\": <ID del rol>}");
+    }
+
+    /**
+     * Crea varios usuarios en una transacción. Los elementos inválidos o con RUT/email repetido
+     * (en el lote o en la base de datos) se rechazan sin detener al resto; los aceptados se
+     * insertan en chunks del tamaño del lote JDBC, vaciando el contexto de persistencia entre chunks.
+     */
+    @Transactional
+    public ResultadoLote guardarLote(List<Usuario> usuarios) {
+        if (usuarios.size() > LIMITE_LOTE) {
+            throw new IllegalArgumentException("El lote no puede superar " + LIMITE_LOTE + " usuarios");
+        }
+        ResultadoLote resultado = new ResultadoLote();
+
+        Set<Long> ruts = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Usuario usuario : usuarios) {
+            if (usuario != null) {
+                Rut.intentar(usuario.getRut()).ifPresent(rut -> ruts.add(rut.getNumero()));
+            }
+            if (usuario != null && usuario.getEmail() != null) {
+                emails.add(Usuario.normalizarEmail(usuario.getEmail()));
+            }
+        }
+        Set<Long> rutsExistentes = ruts.isEmpty()
+                ? new HashSet<>() : new HashSet<>(usuarioRepository.findRutNumerosExistentes(ruts));
+        Set<String> emailsExistentes = emails.isEmpty()
+                ? new HashSet<>() : new HashSet<>(usuarioRepository.findEmailsNormalizadosExistentes(emails));
+
+        List<Usuario> aceptados = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            String motivo = validarParaLote(usuario, rutsExistentes, emailsExistentes);
+            if (motivo != null) {
+                resultado.getRechazados().add(new ResultadoLote.Rechazado(i, motivo));
+                continue;
+            }
+            // Los siguientes elementos del lote con el mismo RUT o email se rechazan como duplicados
+            Rut rut = Rut.parse(usuario.getRut());
+            usuario.setRut(rut.toString());
+            rutsExistentes.add(rut.getNumero());
+            emailsExistentes.add(Usuario.normalizarEmail(usuario.getEmail()));
+            // Sin ID ni versión es un alta, también al reintentar un lote que se revirtió tras el persist
+            usuario.setId(null);
+            usuario.setVersion(null);
+            aceptados.add(usuario);
+            indices.add(i);
+        }
+
+        int chunk = Math.max(1, tamanoChunk);
+        for (int desde = 0; desde < aceptados.size(); desde += chunk) {
+            List<Usuario> parte = aceptados.subList(desde, Math.min(desde + chunk, aceptados.size()));
+            usuarioRepository.saveAll(parte);
+            usuarioRepository.flush();
+            entityManager.clear();
+            for (int j = 0; j < parte.size(); j++) {
+                resultado.getCreados().add(new ResultadoLote.Creado(indices.get(desde + j), parte.get(j).getId()));
+            }
+        }
+        // Los chunks ya están en la base pero sin confirmar: un rollback dejaría el índice con usuarios inexistentes
+        DespuesDelCommit.ejecutar(() -> {
+            for (Usuario creado : aceptados) {
+                usuarioCache.invalidar(creado);
+                indiceBusqueda.indexar(creado.getId(), creado.getNombre());
+            }
+        });
+        return resultado;
+    }
+
+    private String validarParaLote(Usuario usuario, Set<Long> rutsExistentes, Set<String> emailsExistentes) {
+        if (usuario == null) {
+            return "El usuario es requerido";
+        }
+        if (usuario.getNombre() == null || usuario.getNombre().isEmpty()) {
+            return "El nombre del usuario es requerido";
+        }
+        if (usuario.getEmail() == null || usuario.getEmail().isEmpty()) {
+            return "El email del usuario es requerido";
+        }
+        if (usuario.getRut() == null || usuario.getRut().isEmpty()) {
+            return "El RUT del usuario es requerido";
+        }
+        Optional<Rut> rut = Rut.intentar(usuario.getRut());
+        if (rut.isEmpty()) {
+            return "El RUT " + usuario.getRut() + " no es válido";
+        }
+        if (rutsExistentes.contains(rut.get().getNumero())) {
+            return "El RUT " + usuario.getRut() + " ya está registrado";
+        }
+        if (emailsExistentes.contains(Usuario.normalizarEmail(usuario.getEmail()))) {
+            return "El email " + usuario.getEmail() + " ya está registrado";
+        }
+        return null;
+    }
+
+    /**
+     * Elimina con un único DELETE; devuelve false si el usuario no existía.
+     */
+    @Transactional
+    public boolean eliminar(Long id) {
+        int eliminados = usuarioRepository.eliminarPorId(id);
+        DespuesDelCommit.ejecutar(() -> {
+            usuarioCache.invalidar(id);
+            indiceBusqueda.quitar(id);
+        });
+        return eliminados > 0;
+    }
+
+    /**
+     * Elimina hasta {@value #LIMITE_LOTE} usuarios con un único DELETE en una transacción.
+     * Los IDs inexistentes se ignoran; devuelve la cantidad de usuarios eliminados.
+     */
+    @Transactional
+    public int eliminarLote(List<Long> ids) {
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        distintos.remove(null);
+        if (distintos.size() > LIMITE_LOTE) {
+            throw new IllegalArgumentException("El lote no puede superar " + LIMITE_LOTE + " usuarios");
+        }
+        if (distintos.isEmpty()) {
+            return 0;
+        }
+        int eliminados = usuarioRepository.eliminarPorIds(distintos);
+        DespuesDelCommit.ejecutar(() -> {
+            for (Long id : distintos) {
+                usuarioCache.invalidar(id);
+                indiceBusqueda.quitar(id);
+            }
+        });
+        return eliminados;
     }
 
-    public void eliminar(Long id) {
-        usuarioRepository.deleteById(id);
+    /**
+     * Mueve todos los usuarios del rol {@code origen} al rol {@code destino} con un único UPDATE y
+     * devuelve cuántos se movieron. Como no se sabe qué usuarios del caché tenían ese rol, se vacía completo.
+     */
+    @Transactional
+    public int reasignarRol(Long origen, Long destino) {
+        int reasignados = usuarioRepository.reasignarRol(origen, destino);
+        if (reasignados > 0) {
+            // Dentro de RolService.eliminar el rol se borra en la misma transacción, después de esto
+            DespuesDelCommit.ejecutar(usuarioCache::invalidarTodo);
+        }
+        return reasignados;
     }
 }
@@ -0,0 +1,90 @@
+package com.libreriaSanSebastian.userService.AssemblerTest;
+
+import com.libreriaSanSebastian.userService.assemblers.RolModelAssembler;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelAssemblerTest {
+
+    private UsuarioModelAssembler usuarioAssembler;
+    private RolModelAssembler rolAssembler;
+
+    private Usuario usuario1;
+    private Rol rol1;
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("usuarios.libreriasansebastian.cl");
+        request.setServerPort(8081);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        usuarioAssembler = new UsuarioModelAssembler();
+        rolAssembler = new RolModelAssembler();
+
+        rol1 = new Rol();
+        rol1.setId(1L);
+        rol1.setNombre("ADMIN");
+
+        usuario1 = new Usuario();
+        usuario1.setId(7L);
+        usuario1.setNombre("Juan Pérez");
+        usuario1.setRol(rol1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testUsuario_EnlacesConPlantillaIgualesAReflexivos() {
+        // Act
+        EntityModel<Usuario> conPlantilla = usuarioAssembler.toModel(usuario1);
+        usuarioAssembler.setUsarPlantilla(false);
+        EntityModel<Usuario> reflexivo = usuarioAssembler.toModel(usuario1);
+
+        // Assert
+        assertEquals(reflexivo.getLinks().toString(), conPlantilla.getLinks().toString());
+        assertEquals("http://usuarios.libreriasansebastian.cl:8081/api/v1/usuarios/7",
+                conPlantilla.getRequiredLink(IanaLinkRelations.SELF).getHref());
+        assertTrue(conPlantilla.getRequiredLink("usuarios").isTemplated());
+    }
+
+    @Test
+    void testRol_EnlacesConPlantillaIgualesAReflexivos() {
+        // Act
+        EntityModel<Rol> conPlantilla = rolAssembler.toModel(rol1);
+        rolAssembler.setUsarPlantilla(false);
+        EntityModel<Rol> reflexivo = rolAssembler.toModel(rol1);
+
+        // Assert
+        assertEquals(reflexivo.getLinks().toString(), conPlantilla.getLinks().toString());
+    }
+
+    @Test
+    void testPlantillaSeReutilizaEnLaMismaPeticion() {
+        // Arrange
+        Usuario usuario2 = new Usuario();
+        usuario2.setId(8L);
+
+        // Act
+        usuarioAssembler.toModel(usuario1);
+        EntityModel<Usuario> segundo = usuarioAssembler.toModel(usuario2);
+
+        // Assert
+        assertEquals("http://usuarios.libreriasansebastian.cl:8081/api/v1/usuarios/8",
+                segundo.getRequiredLink("eliminar").getHref());
+    }
+}
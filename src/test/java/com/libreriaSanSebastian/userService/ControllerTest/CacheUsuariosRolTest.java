@@ -0,0 +1,116 @@
+package com.libreriaSanSebastian.userService.ControllerTest;
+
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.repository.RolRepository;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Los usuarios en caché llevan su rol embebido: tras modificar o eliminar el rol, la lectura
+ * del usuario debe mostrar el rol actual y un ETag nuevo, no la copia cacheada.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class CacheUsuariosRolTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    private Rol rol;
+    private Rol otroRol;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        rol = rolRepository.save(nuevoRol("EDITOR"));
+        otroRol = rolRepository.save(nuevoRol("LECTOR"));
+
+        usuario = new Usuario();
+        usuario.setNombre("Juan Pérez");
+        usuario.setEmail("juan@email.com");
+        usuario.setRut(Rut.de(12_345_678L).toString());
+        usuario.setRol(rol);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAll();
+        rolRepository.deleteAll();
+    }
+
+    private static Rol nuevoRol(String nombre) {
+        Rol nuevo = new Rol();
+        nuevo.setNombre(nombre);
+        nuevo.setDescripcion("Rol " + nombre);
+        return nuevo;
+    }
+
+    @Test
+    void testRenombrarRol_CambiaElEtagDeSusUsuarios() throws Exception {
+        // Arrange
+        String etagAnterior = mockMvc.perform(get("/api/v1/usuarios/" + usuario.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String etagRol = mockMvc.perform(get("/api/v1/roles/" + rol.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/api/v1/roles/" + rol.getId())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, etagRol)
+                        .content("{\"nombre\":\"EDITOR_JEFE\"}"))
+                .andExpect(status().isOk());
+
+        // Act
+        String etagNuevo = mockMvc.perform(get("/api/v1/usuarios/" + usuario.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etagAnterior))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rol.nombre").value("EDITOR_JEFE"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotNull(etagNuevo);
+        assertNotEquals(etagAnterior, etagNuevo);
+    }
+
+    @Test
+    void testEliminarRolReasignando_UsuarioMuestraElRolDeDestino() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/v1/usuarios/" + usuario.getId()))
+                .andExpect(jsonPath("$.rol.nombre").value("EDITOR"));
+
+        // Act
+        mockMvc.perform(delete("/api/v1/roles/" + rol.getId()).param("reassignTo", otroRol.getId().toString()))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/v1/usuarios/" + usuario.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rol.nombre").value("LECTOR"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.libreriaSanSebastian.userService.ControllerTest;
+
+import com.libreriaSanSebastian.userService.config.LimiteConcurrenciaFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcurrenciaFilterTest {
+
+    private LimiteConcurrenciaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LimiteConcurrenciaFilter(1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testPermisoLibre_AtiendePeticion() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/usuarios"), response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void testSinPermisos_Responde503() throws Exception {
+        // Arrange
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> ocupada = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/usuarios/1"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            enCurso.countDown();
+                            try {
+                                liberar.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/usuarios/2"), response, chain);
+        liberar.countDown();
+        ocupada.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("error"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testPeticionAsincronaEnCurso_ConservaElPermiso() throws Exception {
+        // Arrange
+        MockHttpServletRequest exportacion = new MockHttpServletRequest("GET", "/api/v1/usuarios/export");
+        exportacion.setAsyncSupported(true);
+        filter.doFilter(exportacion, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockHttpServletResponse durante = new MockHttpServletResponse();
+        MockHttpServletResponse despues = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/usuarios/1"), durante, new MockFilterChain());
+        ((MockAsyncContext) exportacion.getAsyncContext()).complete();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/usuarios/1"), despues, new MockFilterChain());
+
+        // Assert
+        assertEquals(503, durante.getStatus());
+        assertEquals(200, despues.getStatus());
+    }
+
+    @Test
+    void testRutaFueraDeLaApi_NoSeLimita() throws Exception {
+        // Arrange
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> ocupada = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/roles"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            enCurso.countDown();
+                            try {
+                                liberar.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+        liberar.countDown();
+        ocupada.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+    }
+}
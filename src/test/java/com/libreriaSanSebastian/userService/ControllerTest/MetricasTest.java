@@ -0,0 +1,59 @@
+package com.libreriaSanSebastian.userService.ControllerTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica que el endpoint de Prometheus publique las métricas de HTTP, Hikari, Hibernate,
+ * servicios y cachés. Usa H2 con el pool Hikari real, para que también se publiquen sus métricas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricas;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheus_PublicaMetricasDeCadaCapa() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/v1/usuarios")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/usuarios/1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/roles")).andExpect(status().isOk());
+
+        // Act
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(metricas.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(metricas.contains("uri=\"/api/v1/usuarios/{id}\""));
+        assertTrue(metricas.contains("hikaricp_connections_active"));
+        assertTrue(metricas.contains("hikaricp_connections_pending"));
+        assertTrue(metricas.contains("hikaricp_connections_acquire_seconds"));
+        assertTrue(metricas.contains("hibernate_query_executions_total"));
+        assertTrue(metricas.contains("hibernate_entities_loads_total"));
+        assertTrue(metricas.contains("hibernate_cache_query_requests_total"));
+        assertTrue(metricas.contains("usuarios_servicio_seconds_bucket{"));
+        assertTrue(metricas.contains("roles_servicio_seconds_bucket{"));
+        assertTrue(metricas.contains("usuarios_cache_gets_total{"));
+        assertTrue(metricas.contains("cache_gets_total{"));
+    }
+}
@@ -1,19 +1,31 @@
 package com.libreriaSanSebastian.userService.ControllerTest;
 
+import com.libreriaSanSebastian.userService.assemblers.RolModelAssembler;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
 import com.libreriaSanSebastian.userService.controller.RolController;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libreriaSanSebastian.userService.dto.EstadisticasRoles;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.RolConUsuarios;
 import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
 import com.libreriaSanSebastian.userService.service.RolService;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RolController.class)
+@Import({RolModelAssembler.class, UsuarioModelAssembler.class})
 class RolControllerTest {
 
     @Autowired
@@ -31,6 +44,9 @@ class RolControllerTest {
     @MockBean
     private RolService rolService;
 
+    @MockBean
+    private UsuarioService usuarioService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,19 +69,34 @@ class RolControllerTest {
     @Test
     void testListarTodos() throws Exception {
         // Arrange
-        List<Rol> roles = Arrays.asList(rol1, rol2);
-        when(rolService.listarTodos()).thenReturn(roles);
+        Pagina<Rol> pagina = new Pagina<>(Arrays.asList(rol1, rol2), null, Pagina.LIMITE_POR_DEFECTO);
+        when(rolService.listarPagina(null, null)).thenReturn(pagina);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/roles"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].nombre").value("ADMIN"))
-                .andExpect(jsonPath("$[1].nombre").value("USER"));
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.rolList.length()").value(2))
+                .andExpect(jsonPath("$._embedded.rolList[0].nombre").value("ADMIN"))
+                .andExpect(jsonPath("$._embedded.rolList[1].nombre").value("USER"))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(rolService, times(1)).listarPagina(null, null);
+    }
+
+    @Test
+    void testListarTodos_ConPaginaSiguiente() throws Exception {
+        // Arrange
+        Pagina<Rol> pagina = new Pagina<>(List.of(rol1), 1L, 1);
+        when(rolService.listarPagina(0L, 1)).thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.rolList.length()").value(1))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/roles?after=1&limit=1"));
 
-        verify(rolService, times(1)).listarTodos();
+        verify(rolService, times(1)).listarPagina(0L, 1);
     }
 
     @Test
@@ -76,7 +107,7 @@ class RolControllerTest {
         // Act & Assert
         mockMvc.perform(get("/api/v1/roles/1"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nombre").value("ADMIN"))
                 .andExpect(jsonPath("$.descripcion").value("Administrador"));
@@ -84,6 +115,107 @@ class RolControllerTest {
         verify(rolService, times(1)).buscarPorId(1L);
     }
 
+    @Test
+    void testObtenerPorId_NoModificado() throws Exception {
+        // Arrange
+        rol1.setVersion(2L);
+        when(rolService.buscarPorId(1L)).thenReturn(Optional.of(rol1));
+        when(rolService.contarUsuarios(1L)).thenReturn(5L, 5L, 6L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles/1").header(HttpHeaders.IF_NONE_MATCH, "\"r1-2-n5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"r1-2-n5\""));
+
+        mockMvc.perform(get("/api/v1/roles/1").header(HttpHeaders.IF_NONE_MATCH, "\"r1-1-n5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"r1-2-n5\""));
+
+        // Cambió la cantidad de usuarios aunque el rol no
+        mockMvc.perform(get("/api/v1/roles/1").header(HttpHeaders.IF_NONE_MATCH, "\"r1-2-n5\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuarioCount").value(6))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"r1-2-n6\""));
+    }
+
+    @Test
+    void testListarTodos_ConUsuarioCount() throws Exception {
+        // Arrange
+        when(rolService.listarPagina(null, null)).thenReturn(new Pagina<>(Arrays.asList(rol1, rol2), null, 20));
+        when(rolService.contarUsuarios(List.of(1L, 2L))).thenReturn(Map.of(1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.rolList[0].nombre").value("ADMIN"))
+                .andExpect(jsonPath("$._embedded.rolList[0].usuarioCount").value(3))
+                .andExpect(jsonPath("$._embedded.rolList[1].usuarioCount").value(0))
+                .andExpect(jsonPath("$._embedded.rolList[1]._links.self.href").value("http://localhost/api/v1/roles/2"));
+    }
+
+    @Test
+    void testListarUsuarios_ConPaginaSiguiente() throws Exception {
+        // Arrange
+        Usuario usuario = new Usuario(5L, "Juan Pérez", "juan@email.com", "12345678-5", rol1);
+        when(rolService.buscarPorId(1L)).thenReturn(Optional.of(rol1));
+        when(usuarioService.listarPorRol(1L, 4L, 1)).thenReturn(new Pagina<>(List.of(usuario), 5L, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles/1/usuarios").param("after", "4").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$._embedded.usuarioList[0].id").value(5))
+                .andExpect(jsonPath("$._links.rol.href").value("http://localhost/api/v1/roles/1"))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/roles/1/usuarios?after=5&limit=1"));
+    }
+
+    @Test
+    void testListarUsuarios_RolNoExistente() throws Exception {
+        // Arrange
+        when(rolService.buscarPorId(9L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles/9/usuarios"))
+                .andExpect(status().isNotFound());
+
+        verify(usuarioService, never()).listarPorRol(any(), any(), any());
+    }
+
+    @Test
+    void testEstadisticas() throws Exception {
+        // Arrange
+        when(rolService.estadisticas()).thenReturn(new EstadisticasRoles(10, 2,
+                List.of(new RolConUsuarios(rol2, 5), new RolConUsuarios(rol1, 3))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/roles/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalUsuarios").value(10))
+                .andExpect(jsonPath("$.usuariosSinRol").value(2))
+                .andExpect(jsonPath("$.roles[0].nombre").value("USER"))
+                .andExpect(jsonPath("$.roles[0].usuarioCount").value(5));
+    }
+
+    @Test
+    void testActualizar_IfMatchDeUnaLectura() throws Exception {
+        // Arrange
+        rol1.setVersion(2L);
+        when(rolService.buscarPorId(1L)).thenReturn(Optional.of(rol1));
+        when(rolService.guardar(any(Rol.class))).thenReturn(rol1);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/roles/1")
+                        .header(HttpHeaders.IF_MATCH, "\"r1-2-n5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": \"ADMIN\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/roles/1")
+                        .header(HttpHeaders.IF_MATCH, "\"r1-1-n5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": \"ADMIN\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testObtenerPorId_NoExistente() throws Exception {
         // Arrange
@@ -114,8 +246,8 @@ class RolControllerTest {
         mockMvc.perform(post("/api/v1/roles")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(nuevoRol)))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.id").value(3))
                 .andExpect(jsonPath("$.nombre").value("MODERADOR"));
 
@@ -138,7 +270,7 @@ class RolControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(rolActualizado)))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.nombre").value("ADMIN_UPDATED"));
 
         verify(rolService, times(1)).buscarPorId(1L);
@@ -148,26 +280,69 @@ class RolControllerTest {
     @Test
     void testEliminar_Existente() throws Exception {
         // Arrange
-        when(rolService.buscarPorId(1L)).thenReturn(Optional.of(rol1));
+        when(rolService.eliminar(1L)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/roles/1"))
                 .andExpect(status().isNoContent());
 
-        verify(rolService, times(1)).buscarPorId(1L);
+        verify(rolService, never()).buscarPorId(anyLong());
         verify(rolService, times(1)).eliminar(1L);
     }
 
     @Test
     void testEliminar_NoExistente() throws Exception {
         // Arrange
-        when(rolService.buscarPorId(99L)).thenReturn(Optional.empty());
+        when(rolService.eliminar(99L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/roles/99"))
                 .andExpect(status().isNotFound());
 
-        verify(rolService, times(1)).buscarPorId(99L);
-        verify(rolService, times(0)).eliminar(anyLong());
+        verify(rolService, times(1)).eliminar(99L);
+    }
+
+    @Test
+    void testEliminar_ConUsuariosSinDestino() throws Exception {
+        // Arrange
+        when(rolService.eliminar(1L)).thenThrow(new DataIntegrityViolationException("FK_USUARIOS_ROL"));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/roles/1"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testEliminar_ReasignandoUsuarios() throws Exception {
+        // Arrange
+        when(rolService.eliminar(1L, 2L)).thenReturn(Optional.of(5));
+        when(rolService.eliminar(99L, 2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/roles/1").param("reassignTo", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuariosReasignados").value(5));
+        mockMvc.perform(delete("/api/v1/roles/99").param("reassignTo", "2"))
+                .andExpect(status().isNotFound());
+
+        verify(rolService, never()).eliminar(anyLong());
+    }
+
+    @Test
+    void testReasignarUsuarios() throws Exception {
+        // Arrange
+        when(rolService.buscarPorId(1L)).thenReturn(Optional.of(rol1));
+        when(rolService.reasignarUsuarios(1L, 2L)).thenReturn(5);
+        when(rolService.reasignarUsuarios(1L, 1L))
+                .thenThrow(new IllegalArgumentException("El rol de destino debe ser distinto del rol de origen"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/roles/1/reassign").param("to", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuariosReasignados").value(5));
+        mockMvc.perform(post("/api/v1/roles/1/reassign").param("to", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("El rol de destino debe ser distinto del rol de origen"));
     }
-}
\ No newline at end of file
+}
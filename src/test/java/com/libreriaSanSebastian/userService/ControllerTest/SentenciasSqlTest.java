@@ -0,0 +1,362 @@
+package com.libreriaSanSebastian.userService.ControllerTest;
+
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.repository.RolRepository;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import com.libreriaSanSebastian.userService.support.ContadorSentenciasSql;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Cuenta las sentencias SQL que emite cada endpoint contra una base H2 embebida,
+ * para detectar regresiones N+1 al cargar el rol de cada usuario.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.libreriaSanSebastian.userService.support.ContadorSentenciasSql",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class SentenciasSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    private List<Usuario> usuarios;
+
+    @BeforeEach
+    void setUp() {
+        List<Rol> roles = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Rol rol = new Rol();
+            rol.setNombre("ROL_" + i);
+            rol.setDescripcion("Rol de prueba " + i);
+            roles.add(rolRepository.save(rol));
+        }
+
+        usuarios = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNombre("Usuario " + i);
+            usuario.setEmail("usuario" + i + "@email.com");
+            usuario.setRut(Rut.de(i * 1_000_000L).toString());
+            usuario.setRol(roles.get(i % roles.size()));
+            usuarios.add(usuarioRepository.save(usuario));
+        }
+        ContadorSentenciasSql.reiniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        usuarioRepository.deleteAll();
+        rolRepository.deleteAll();
+    }
+
+    @Test
+    void testListarUsuarios_UnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList.length()").value(6))
+                .andExpect(jsonPath("$._embedded.usuarioList[0].rol.nombre").exists());
+
+        assertEquals(1, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testListarResumenes_UnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioResumenList.length()").value(6))
+                .andExpect(jsonPath("$._embedded.usuarioResumenList[0].rolNombre").exists());
+
+        assertEquals(1, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testObtenerResumenPorRut_UnaSentencia() throws Exception {
+        Usuario usuario = usuarios.get(4);
+
+        mockMvc.perform(get("/api/v1/usuarios/resumen/rut/" + usuario.getRut().replace("-", "")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(usuario.getId()))
+                .andExpect(jsonPath("$.rolNombre").value(usuario.getRol().getNombre()));
+
+        assertEquals(1, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testExportarNdjson_UnaSentenciaUnaLineaPorUsuario() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/v1/usuarios/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(6, lineas.length);
+        assertTrue(lineas[0].startsWith("{\"id\":" + usuarios.get(0).getId() + ",\"nombre\":\"Usuario 1\""));
+        assertTrue(lineas[5].contains("\"rolNombre\":\"" + usuarios.get(5).getRol().getNombre() + "\""));
+        assertEquals(1, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testObtenerUsuarioPorId_NoMasDeUnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/" + usuarios.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rol.nombre").exists());
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testObtenerUsuarioPorId_NoModificadoSinSentencias() throws Exception {
+        String url = "/api/v1/usuarios/" + usuarios.get(0).getId();
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        ContadorSentenciasSql.reiniciar();
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testObtenerUsuarioPorRut_NoMasDeUnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/rut/" + usuarios.get(1).getRut()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rol.nombre").exists());
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testObtenerUsuarioPorEmail_SinDistinguirMayusculas() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/email/USUARIO3@Email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(usuarios.get(2).getId()))
+                .andExpect(jsonPath("$.rol.nombre").exists());
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testObtenerUsuarioPorRut_ConPuntosUsaLaMismaConsulta() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/rut/2.000.000-7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rut").value("2000000-7"));
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testObtenerUsuarioPorRut_InvalidoSinSentencias() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/rut/2.000.000-1"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testObtenerUsuarioPorNombre_NoMasDeUnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/v1/usuarios/nombre/" + usuarios.get(2).getNombre()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rol.nombre").exists());
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testObtenerPorIds_UnaSentencia() throws Exception {
+        String ids = usuarios.get(3).getId() + "," + usuarios.get(0).getId() + ",999999";
+
+        mockMvc.perform(get("/api/v1/usuarios").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.encontrados.length()").value(2))
+                .andExpect(jsonPath("$.encontrados[0].rol.nombre").exists())
+                .andExpect(jsonPath("$.noEncontrados[0]").value("999999"));
+
+        assertTrue(ContadorSentenciasSql.total() <= 1);
+    }
+
+    @Test
+    void testActualizarParcial_UnUpdateVersionado() throws Exception {
+        Usuario usuario = usuarios.get(0);
+        String url = "/api/v1/usuarios/" + usuario.getId();
+        Long otroRol = usuarios.get(1).getRol().getId();
+
+        mockMvc.perform(patch(url)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"email\":\"Nuevo@Email.com\",\"rol\":{\"id\":" + otroRol + "},\"version\":0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("Nuevo@Email.com"))
+                .andExpect(jsonPath("$.rol.id").value(otroRol))
+                .andExpect(jsonPath("$.nombre").value(usuario.getNombre()))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // UPDATE de las columnas cambiadas + lectura de la representación
+        assertEquals(2, ContadorSentenciasSql.total());
+        assertEquals(usuario.getId(), usuarioRepository.findByEmailNormalizado("nuevo@email.com").getId());
+
+        mockMvc.perform(patch(url)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"nombre\":\"Otro nombre\",\"version\":0}"))
+                .andExpect(status().isConflict());
+        assertEquals(usuario.getNombre(), usuarioRepository.findById(usuario.getId()).orElseThrow().getNombre());
+    }
+
+    @Test
+    void testEliminarUsuario_UnaSentencia() throws Exception {
+        mockMvc.perform(delete("/api/v1/usuarios/" + usuarios.get(0).getId()))
+                .andExpect(status().isNoContent());
+        assertEquals(1, ContadorSentenciasSql.total());
+
+        mockMvc.perform(delete("/api/v1/usuarios/" + usuarios.get(0).getId()))
+                .andExpect(status().isNotFound());
+        assertEquals(2, ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testEliminarLote_UnaSentencia() throws Exception {
+        String ids = "[" + usuarios.get(1).getId() + "," + usuarios.get(2).getId() + ",999999]";
+
+        mockMvc.perform(post("/api/v1/usuarios/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminados").value(2));
+
+        assertEquals(1, ContadorSentenciasSql.total());
+        assertEquals(4, usuarioRepository.count());
+    }
+
+    @Test
+    void testCrearLote_InsercionesAgrupadas() throws Exception {
+        // Arrange
+        StringBuilder lote = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            lote.append(i == 0 ? "" : ",")
+                    .append("{\"nombre\":\"Lote ").append(i)
+                    .append("\",\"email\":\"lote").append(i).append("@email.com\"")
+                    .append(",\"rut\":\"").append(Rut.de(50_000_000L + i)).append("\"}");
+        }
+        lote.append("]");
+
+        // Act
+        mockMvc.perform(post("/api/v1/usuarios/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote.toString()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.creados.length()").value(120));
+
+        // Assert: 2 verificaciones de duplicados + 3 bloques de IDs + 3 lotes de INSERT
+        assertTrue(ContadorSentenciasSql.total() <= 10, "sentencias: " + ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testListarRoles_UnaSentenciaMasElConteo() throws Exception {
+        mockMvc.perform(get("/api/v1/roles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.rolList.length()").value(3))
+                .andExpect(jsonPath("$._embedded.rolList[0].usuarioCount").value(2));
+
+        // La página de roles y un GROUP BY para usuarioCount
+        assertTrue(ContadorSentenciasSql.total() <= 2, "sentencias: " + ContadorSentenciasSql.total());
+    }
+
+    @Test
+    void testListarUsuariosDeRol_KeysetPorRolId() throws Exception {
+        Rol rol = usuarios.get(0).getRol();
+        Long segundo = usuarios.get(3).getId();
+
+        mockMvc.perform(get("/api/v1/roles/" + rol.getId() + "/usuarios").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList.length()").value(1))
+                .andExpect(jsonPath("$._embedded.usuarioList[0].id").value(usuarios.get(0).getId()))
+                .andExpect(jsonPath("$._links.next.href").exists());
+        ContadorSentenciasSql.reiniciar();
+
+        mockMvc.perform(get("/api/v1/roles/" + rol.getId() + "/usuarios")
+                        .param("after", usuarios.get(0).getId().toString()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList[0].id").value(segundo))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        // Una sola sentencia (el rol sale del caché), filtrada por la FK y con el ID como cursor
+        List<String> sentencias = ContadorSentenciasSql.sentencias();
+        assertEquals(1, sentencias.size(), "sentencias: " + sentencias);
+        assertTrue(sentencias.get(0).matches("(?s).*rol_id=\\?.*id>\\?.*order by .*id.*"), sentencias.get(0));
+    }
+
+    @Test
+    void testEliminarRol_ReasignaConUnSoloUpdate() throws Exception {
+        Rol origen = usuarios.get(0).getRol();
+        Rol destino = usuarios.get(1).getRol();
+
+        mockMvc.perform(delete("/api/v1/roles/" + origen.getId()))
+                .andExpect(status().isConflict());
+        ContadorSentenciasSql.reiniciar();
+
+        mockMvc.perform(delete("/api/v1/roles/" + origen.getId()).param("reassignTo", destino.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuariosReasignados").value(2));
+
+        // Verificación del destino, el UPDATE de los usuarios y el DELETE del rol
+        List<String> sentencias = ContadorSentenciasSql.sentencias();
+        assertEquals(3, sentencias.size(), "sentencias: " + sentencias);
+        assertEquals(1, sentencias.stream().filter(sql -> sql.startsWith("UPDATE usuarios")).count());
+        assertFalse(rolRepository.existsById(origen.getId()));
+        Usuario movido = usuarioRepository.findById(usuarios.get(0).getId()).orElseThrow();
+        assertEquals(destino.getId(), movido.getRol().getId());
+        assertEquals(usuarios.get(0).getVersion() + 1, movido.getVersion());
+    }
+
+    @Test
+    void testEstadisticasRoles_SinLeerUsuarios() throws Exception {
+        mockMvc.perform(get("/api/v1/roles/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalUsuarios").value(6))
+                .andExpect(jsonPath("$.usuariosSinRol").value(0))
+                .andExpect(jsonPath("$.roles.length()").value(3))
+                .andExpect(jsonPath("$.roles[0].usuarioCount").value(2));
+
+        // Los roles y un GROUP BY sobre usuarios.rol_id; ninguna sentencia selecciona columnas de usuarios
+        assertEquals(2, ContadorSentenciasSql.total(), "sentencias: " + ContadorSentenciasSql.sentencias());
+        assertTrue(ContadorSentenciasSql.sentencias().stream()
+                .noneMatch(sql -> sql.contains("from usuarios") && sql.contains(".email")));
+    }
+}
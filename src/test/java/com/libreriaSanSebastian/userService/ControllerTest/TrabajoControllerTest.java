@@ -0,0 +1,132 @@
+package com.libreriaSanSebastian.userService.ControllerTest;
+
+import com.libreriaSanSebastian.userService.assemblers.TrabajoModelAssembler;
+import com.libreriaSanSebastian.userService.controller.TrabajoController;
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.TrabajoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TrabajoController.class)
+@Import(TrabajoModelAssembler.class)
+class TrabajoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TrabajoService trabajoService;
+
+    private Trabajo trabajo;
+
+    @BeforeEach
+    void setUp() {
+        trabajo = new Trabajo(Trabajo.Tipo.IMPORTACION, "csv");
+        trabajo.setId(7L);
+    }
+
+    @Test
+    void testImportar_RespondeAceptadoConUbicacion() throws Exception {
+        // Arrange
+        when(trabajoService.importar(eq(FormatoArchivo.CSV), any())).thenReturn(trabajo);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/jobs/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("nombre,email,rut\nA,a@email.com,1-9\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/v1/jobs/7"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                .andExpect(jsonPath("$._links.cancelar.href").value("http://localhost/api/v1/jobs/7/cancel"));
+    }
+
+    @Test
+    void testExportar_ColaLlena() throws Exception {
+        // Arrange
+        when(trabajoService.exportar(FormatoArchivo.NDJSON)).thenThrow(new RejectedExecutionException());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/jobs/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testEliminar_ListaVacia() throws Exception {
+        // Arrange
+        when(trabajoService.eliminar(List.of())).thenThrow(new IllegalArgumentException("Debe indicar al menos un ID"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/jobs/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Debe indicar al menos un ID"));
+    }
+
+    @Test
+    void testObtenerPorId_ConAvance() throws Exception {
+        // Arrange
+        trabajo.setEstado(Trabajo.Estado.COMPLETADO);
+        trabajo.setProcesados(2000);
+        trabajo.setErrores(3);
+        trabajo.setReporte("abc");
+        trabajo.setIniciado(Instant.parse("2024-01-01T00:00:00Z"));
+        trabajo.setTerminado(Instant.parse("2024-01-01T00:00:04Z"));
+        when(trabajoService.buscar(7L)).thenReturn(Optional.of(trabajo));
+        when(trabajoService.buscar(8L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/jobs/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.procesados").value(2000))
+                .andExpect(jsonPath("$.errores").value(3))
+                .andExpect(jsonPath("$.filasPorSegundo").value(500.0))
+                .andExpect(jsonPath("$._links.errores.href").value("http://localhost/api/v1/usuarios/import/abc/errores"))
+                .andExpect(jsonPath("$._links.cancelar").doesNotExist());
+        mockMvc.perform(get("/api/v1/jobs/8"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCancelar() throws Exception {
+        // Arrange
+        Trabajo cancelado = new Trabajo(Trabajo.Tipo.IMPORTACION, "csv");
+        cancelado.setId(7L);
+        cancelado.setEstado(Trabajo.Estado.CANCELADO);
+        when(trabajoService.buscar(7L)).thenReturn(Optional.of(trabajo), Optional.of(cancelado));
+        when(trabajoService.cancelar(7L)).thenReturn(Optional.of(cancelado));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/jobs/7/cancel"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.estado").value("CANCELADO"));
+        mockMvc.perform(post("/api/v1/jobs/7/cancel"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(trabajoService, times(1)).cancelar(7L);
+    }
+}
@@ -1,28 +1,50 @@
 package com.libreriaSanSebastian.userService.ControllerTest;
 
+import com.libreriaSanSebastian.userService.assemblers.UsuarioModelAssembler;
+import com.libreriaSanSebastian.userService.assemblers.UsuarioResumenModelAssembler;
 import com.libreriaSanSebastian.userService.controller.UsuarioController;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libreriaSanSebastian.userService.dto.BusquedaMultiple;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
 import com.libreriaSanSebastian.userService.model.Rol;
 import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.ExportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.ImportacionUsuariosService;
 import com.libreriaSanSebastian.userService.service.UsuarioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UsuarioController.class)
+@Import({UsuarioModelAssembler.class, UsuarioResumenModelAssembler.class})
 class UsuarioControllerTest {
 
     @Autowired
@@ -31,6 +53,12 @@ class UsuarioControllerTest {
     @MockBean
     private UsuarioService usuarioService;
 
+    @MockBean
+    private ExportacionUsuariosService exportacionService;
+
+    @MockBean
+    private ImportacionUsuariosService importacionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -48,14 +76,14 @@ class UsuarioControllerTest {
         usuario1.setId(1L);
         usuario1.setNombre("Juan Pérez");
         usuario1.setEmail("juan@email.com");
-        usuario1.setRut("12345678-9");
+        usuario1.setRut("12345678-5");
         usuario1.setRol(rolAdmin);
 
         usuario2 = new Usuario();
         usuario2.setId(2L);
         usuario2.setNombre("María González");
         usuario2.setEmail("maria@email.com");
-        usuario2.setRut("98765432-1");
+        usuario2.setRut("98765432-5");
         usuario2.setRol(rolAdmin);
     }
 
@@ -63,37 +91,240 @@ class UsuarioControllerTest {
     @Test
     void testListarTodos() throws Exception {
         // Arrange
-        List<Usuario> usuarios = Arrays.asList(usuario1, usuario2);
-        when(usuarioService.listarTodos()).thenReturn(usuarios);
+        Pagina<Usuario> pagina = new Pagina<>(Arrays.asList(usuario1, usuario2), null, Pagina.LIMITE_POR_DEFECTO);
+        when(usuarioService.listarPagina(null, null)).thenReturn(pagina);
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/usuarios"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].nombre").value("Juan Pérez"))
-                .andExpect(jsonPath("$[1].nombre").value("María González"));
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.usuarioList.length()").value(2))
+                .andExpect(jsonPath("$._embedded.usuarioList[0].nombre").value("Juan Pérez"))
+                .andExpect(jsonPath("$._embedded.usuarioList[1].nombre").value("María González"))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(usuarioService, times(1)).listarPagina(null, null);
+    }
+
+    @Test
+    void testListarTodos_ConPaginaSiguiente() throws Exception {
+        // Arrange
+        Pagina<Usuario> pagina = new Pagina<>(List.of(usuario1), 1L, 1);
+        when(usuarioService.listarPagina(0L, 1)).thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList.length()").value(1))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/usuarios?after=1&limit=1"));
+
+        verify(usuarioService, times(1)).listarPagina(0L, 1);
+    }
+
+    @Test
+    void testListarTodos_NoModificado() throws Exception {
+        // Arrange
+        Pagina<Usuario> pagina = new Pagina<>(Arrays.asList(usuario1, usuario2), null, Pagina.LIMITE_POR_DEFECTO);
+        when(usuarioService.listarPagina(null, null)).thenReturn(pagina);
+        String etag = mockMvc.perform(get("/api/v1/usuarios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        usuario2.setNombre("María González Rojas");
+        usuario2.setVersion(1L);
+        mockMvc.perform(get("/api/v1/usuarios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList[1].nombre").value("María González Rojas"));
+    }
+
+    @Test
+    void testListarResumenes() throws Exception {
+        // Arrange
+        UsuarioResumen resumen = new UsuarioResumen(1L, "Juan Pérez", "juan@email.com", "12345678-5", "ADMIN");
+        when(usuarioService.listarResumenes(0L, 1)).thenReturn(new Pagina<>(List.of(resumen), 1L, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/resumen").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioResumenList[0].rolNombre").value("ADMIN"))
+                .andExpect(jsonPath("$._embedded.usuarioResumenList[0]._links.self.href")
+                        .value("http://localhost/api/v1/usuarios/resumen/1"))
+                .andExpect(jsonPath("$._embedded.usuarioResumenList[0]._links.usuario.href")
+                        .value("http://localhost/api/v1/usuarios/1"))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/usuarios/resumen?after=1&limit=1"));
+
+        verify(usuarioService, never()).listarPagina(any(), any());
+    }
+
+    @Test
+    void testObtenerResumenPorId_NoExistente() throws Exception {
+        // Arrange
+        when(usuarioService.buscarResumenPorId(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/resumen/99"))
+                .andExpect(status().isNotFound());
+
+        verify(usuarioService, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void testExportar_Csv() throws Exception {
+        // Arrange
+        when(exportacionService.exportar(eq(FormatoArchivo.CSV), any())).thenAnswer(invocacion -> {
+            invocacion.getArgument(1, OutputStream.class).write("id,nombre\r\n1,Juan\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/api/v1/usuarios/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"usuarios.csv\""))
+                .andExpect(content().string("id,nombre\r\n1,Juan\r\n"));
+        verify(usuarioService, never()).listarPagina(any(), any());
+    }
+
+    @Test
+    void testExportar_FormatoNoSoportado() throws Exception {
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/api/v1/usuarios/export").param("format", "xml"))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(exportacionService, never()).exportar(any(), any());
+    }
+
+    @Test
+    void testImportar_ConFilasRechazadas() throws Exception {
+        // Arrange
+        ResultadoImportacion importacion = new ResultadoImportacion();
+        importacion.setLeidos(2);
+        importacion.setCreados(1);
+        importacion.setRechazados(1);
+        importacion.setReporte("abc");
+        when(importacionService.importar(eq(FormatoArchivo.CSV), any())).thenReturn(importacion);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/usuarios/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("nombre,email,rut,rolNombre\nJuan,juan@email.com,12345678-5,ADMIN\n"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.rechazados").value(1))
+                .andExpect(jsonPath("$._links.errores.href").value("http://localhost/api/v1/usuarios/import/abc/errores"));
+    }
+
+    @Test
+    void testImportar_FormatoNoSoportado() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/usuarios/import")
+                        .param("format", "xml")
+                        .contentType("text/csv")
+                        .content("<usuarios/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(importacionService, never()).importar(any(), any());
+    }
+
+    @Test
+    void testReporteImportacion() throws Exception {
+        // Arrange
+        Path archivo = Files.createTempFile("reporte-", ".csv");
+        Files.writeString(archivo, "linea,motivo\r\n2,\"El rol GERENTE no existe\"\r\n");
+        when(importacionService.buscarReporte("abc")).thenReturn(Optional.of(archivo));
+        when(importacionService.buscarReporte("otro")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/import/abc/errores"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("linea,motivo\r\n2,\"El rol GERENTE no existe\"\r\n"));
+        mockMvc.perform(get("/api/v1/usuarios/import/otro/errores"))
+                .andExpect(status().isNotFound());
+        Files.delete(archivo);
+    }
+
+    @Test
+    void testBuscar_ConPaginaSiguiente() throws Exception {
+        // Arrange
+        Pagina<Usuario> pagina = new Pagina<>(List.of(usuario1), 1L, 1);
+        when(usuarioService.buscarPorTexto("juan", null, 1)).thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/search").param("q", "juan").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioList[0].nombre").value("Juan Pérez"))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/v1/usuarios/search?q=juan&offset=1&limit=1"));
 
-        verify(usuarioService, times(1)).listarTodos();
+        verify(usuarioService, times(1)).buscarPorTexto("juan", null, 1);
     }
 
+    @Test
+    void testBuscar_TextoVacio() throws Exception {
+        // Arrange
+        when(usuarioService.buscarPorTexto(" ", null, null))
+                .thenThrow(new IllegalArgumentException("El texto a buscar es requerido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
 
     @Test
     void testObtenerPorRut_Existente() throws Exception {
         // Arrange
-        when(usuarioService.buscarPorRut("12345678-9")).thenReturn(Optional.of(usuario1));
+        when(usuarioService.buscarPorRut("12345678-5")).thenReturn(Optional.of(usuario1));
 
         // Act & Assert
-        mockMvc.perform(get("/api/v1/usuarios/rut/12345678-9"))
+        mockMvc.perform(get("/api/v1/usuarios/rut/12345678-5"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.rut").value("12345678-9"))
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$.rut").value("12345678-5"))
                 .andExpect(jsonPath("$.nombre").value("Juan Pérez"));
 
-        verify(usuarioService, times(1)).buscarPorRut("12345678-9");
+        verify(usuarioService, times(1)).buscarPorRut("12345678-5");
+    }
+
+
+    @Test
+    void testObtenerPorEmail_Existente() throws Exception {
+        // Arrange
+        when(usuarioService.buscarPorEmail("Juan@Email.com")).thenReturn(Optional.of(usuario1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/email/Juan@Email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("juan@email.com"))
+                .andExpect(jsonPath("$.emailNormalizado").doesNotExist());
+
+        verify(usuarioService, times(1)).buscarPorEmail("Juan@Email.com");
     }
 
+    @Test
+    void testObtenerPorEmail_NoExistente() throws Exception {
+        // Arrange
+        when(usuarioService.buscarPorEmail("nadie@email.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/email/nadie@email.com"))
+                .andExpect(status().isNotFound());
+    }
 
     @Test
     void testObtenerPorRut_NoExistente() throws Exception {
@@ -107,6 +338,37 @@ class UsuarioControllerTest {
         verify(usuarioService, times(1)).buscarPorRut("99999999-9");
     }
 
+    @Test
+    void testObtenerPorRut_Invalido() throws Exception {
+        // Arrange
+        when(usuarioService.buscarPorRut("12345678-9"))
+                .thenThrow(new IllegalArgumentException("El RUT 12345678-9 no es válido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/rut/12345678-9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("El RUT 12345678-9 no es válido"));
+    }
+
+
+    @Test
+    void testObtenerPorIds() throws Exception {
+        // Arrange
+        BusquedaMultiple<Usuario> resultado = new BusquedaMultiple<>(List.of(usuario2, usuario1), List.of("99"));
+        when(usuarioService.buscarPorIds(List.of(2L, 1L, 99L))).thenReturn(resultado);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios").param("ids", "2,1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.encontrados.length()").value(2))
+                .andExpect(jsonPath("$.encontrados[0].id").value(2))
+                .andExpect(jsonPath("$.encontrados[0]._links.self.href").value("http://localhost/api/v1/usuarios/2"))
+                .andExpect(jsonPath("$.noEncontrados[0]").value("99"));
+
+        verify(usuarioService, times(1)).buscarPorIds(List.of(2L, 1L, 99L));
+        verify(usuarioService, never()).listarPagina(any(), any());
+    }
+
 
     @Test
     void testObtenerPorId_Existente() throws Exception {
@@ -116,7 +378,7 @@ class UsuarioControllerTest {
         // Act & Assert
         mockMvc.perform(get("/api/v1/usuarios/1"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nombre").value("Juan Pérez"));
 
@@ -124,6 +386,50 @@ class UsuarioControllerTest {
     }
 
 
+    @Test
+    void testObtenerPorId_DevuelveEtagConVersiones() throws Exception {
+        // Arrange
+        usuario1.setVersion(3L);
+        rolAdmin.setVersion(1L);
+        when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-3-r1-1\""));
+    }
+
+
+    @Test
+    void testObtenerPorId_NoModificado() throws Exception {
+        // Arrange
+        usuario1.setVersion(3L);
+        rolAdmin.setVersion(1L);
+        when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/1").header(HttpHeaders.IF_NONE_MATCH, "\"x\", W/\"u1-3-r1-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-3-r1-1\""))
+                .andExpect(content().string(""));
+    }
+
+
+    @Test
+    void testObtenerPorId_EtagDesactualizado() throws Exception {
+        // Arrange
+        usuario1.setVersion(4L);
+        rolAdmin.setVersion(1L);
+        when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/usuarios/1").header(HttpHeaders.IF_NONE_MATCH, "\"u1-3-r1-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-4-r1-1\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+
     @Test
     void testObtenerPorId_NoExistente() throws Exception {
         // Arrange
@@ -157,8 +463,8 @@ class UsuarioControllerTest {
         mockMvc.perform(post("/api/v1/usuarios")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(nuevoUsuario)))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.id").value(3))
                 .andExpect(jsonPath("$.nombre").value("Pedro Silva"));
 
@@ -166,6 +472,26 @@ class UsuarioControllerTest {
     }
 
 
+    @Test
+    void testCrearLote_ParcialmenteRechazado() throws Exception {
+        // Arrange
+        ResultadoLote resultado = new ResultadoLote();
+        resultado.getCreados().add(new ResultadoLote.Creado(0, 3L));
+        resultado.getRechazados().add(new ResultadoLote.Rechazado(1, "El RUT 12345678-9 ya está registrado"));
+        when(usuarioService.guardarLote(anyList())).thenReturn(resultado);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/usuarios/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(usuario2, usuario1))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados[0].id").value(3))
+                .andExpect(jsonPath("$.rechazados[0].indice").value(1));
+
+        verify(usuarioService, times(1)).guardarLote(anyList());
+    }
+
+
     @Test
     void testActualizar_Existente() throws Exception {
         // Arrange
@@ -173,7 +499,7 @@ class UsuarioControllerTest {
         usuarioActualizado.setId(1L);
         usuarioActualizado.setNombre("Juan Pérez Actualizado");
         usuarioActualizado.setEmail("juan_actualizado@email.com");
-        usuarioActualizado.setRut("12345678-9");
+        usuarioActualizado.setRut("12345678-5");
 
         when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario1));
         when(usuarioService.guardar(any(Usuario.class))).thenReturn(usuarioActualizado);
@@ -183,7 +509,7 @@ class UsuarioControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(usuarioActualizado)))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaTypes.HAL_JSON))
                 .andExpect(jsonPath("$.nombre").value("Juan Pérez Actualizado"));
 
         verify(usuarioService, times(1)).buscarPorId(1L);
@@ -211,15 +537,84 @@ class UsuarioControllerTest {
 
 
     @Test
-    void testEliminar_Existente() throws Exception {    
+    void testActualizarParcial_ConIfMatch() throws Exception {
+        // Arrange
+        usuario1.setEmail("nuevo@email.com");
+        usuario1.setVersion(4L);
+        rolAdmin.setVersion(0L);
+        Map<String, Object> cambios = Map.of("email", "nuevo@email.com");
+        when(usuarioService.actualizarParcial(1L, 3L, cambios)).thenReturn(Optional.of(usuario1));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/usuarios/1")
+                        .header(HttpHeaders.IF_MATCH, "\"u1-3-r1-0\"")
+                        .contentType("application/merge-patch+json")
+                        .content(objectMapper.writeValueAsString(cambios)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-4-r1-0\""))
+                .andExpect(jsonPath("$.email").value("nuevo@email.com"));
+
+        verify(usuarioService, times(1)).actualizarParcial(1L, 3L, cambios);
+    }
+
+
+    @Test
+    void testActualizarParcial_SinVersion() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/usuarios/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"nombre\":\"Juan\"}"))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(usuarioService, never()).actualizarParcial(anyLong(), anyLong(), any());
+    }
+
+
+    @Test
+    void testActualizarParcial_ConflictoDeVersion() throws Exception {
         // Arrange
+        when(usuarioService.actualizarParcial(eq(1L), eq(2L), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Usuario.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/usuarios/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Juan\",\"version\":2}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+
+    @Test
+    void testActualizar_IfMatchDesactualizado() throws Exception {
+        // Arrange
+        usuario1.setVersion(5L);
+        rolAdmin.setVersion(0L);
         when(usuarioService.buscarPorId(1L)).thenReturn(Optional.of(usuario1));
 
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/usuarios/1")
+                        .header(HttpHeaders.IF_MATCH, "\"u1-4-r1-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(usuario2)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u1-5-r1-0\""));
+
+        verify(usuarioService, never()).guardar(any(Usuario.class));
+    }
+
+
+    @Test
+    void testEliminar_Existente() throws Exception {    
+        // Arrange
+        when(usuarioService.eliminar(1L)).thenReturn(true);
+
         // Act & Assert
         mockMvc.perform(delete("/api/v1/usuarios/1"))
                 .andExpect(status().isNoContent());
 
-        verify(usuarioService, times(1)).buscarPorId(1L);
+        verify(usuarioService, never()).buscarPorId(anyLong());
         verify(usuarioService, times(1)).eliminar(1L);
     }
 
@@ -227,12 +622,28 @@ class UsuarioControllerTest {
     @Test
     void testEliminar_NoExistente() throws Exception {
         // Arrange
-        when(usuarioService.buscarPorId(99L)).thenReturn(Optional.empty());
+        when(usuarioService.eliminar(99L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/v1/usuarios/99"))
                 .andExpect(status().isNotFound());
 
-        verify(usuarioService, times(1)).buscarPorId(99L);
+        verify(usuarioService, times(1)).eliminar(99L);
+    }
+
+
+    @Test
+    void testEliminarLote() throws Exception {
+        // Arrange
+        when(usuarioService.eliminarLote(List.of(1L, 2L, 99L))).thenReturn(2);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/usuarios/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2,99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminados").value(2));
+
+        verify(usuarioService, times(1)).eliminarLote(List.of(1L, 2L, 99L));
     }
 }
\ No newline at end of file
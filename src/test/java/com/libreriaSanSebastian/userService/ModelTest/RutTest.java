@@ -0,0 +1,58 @@
+package com.libreriaSanSebastian.userService.ModelTest;
+
+import com.libreriaSanSebastian.userService.model.Rut;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RutTest {
+
+    @Test
+    void testParse_AceptaCualquierFormato() {
+        // Act
+        Rut conPuntos = Rut.parse("12.345.678-5");
+        Rut conGuion = Rut.parse("12345678-5");
+        Rut sinSeparadores = Rut.parse("123456785");
+
+        // Assert
+        assertEquals(12345678L, conPuntos.getNumero());
+        assertEquals(conPuntos, conGuion);
+        assertEquals(conPuntos, sinSeparadores);
+        assertEquals("12345678-5", sinSeparadores.toString());
+    }
+
+    @Test
+    void testParse_DigitoVerificadorK() {
+        // Act
+        Rut rut = Rut.parse("10.000.013-k");
+
+        // Assert
+        assertEquals('K', rut.getDv());
+        assertEquals("10000013-K", rut.toString());
+    }
+
+    @Test
+    void testParse_DigitoVerificadorIncorrecto() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> Rut.parse("12345678-9"));
+        assertFalse(Rut.intentar("12345678-9").isPresent());
+    }
+
+    @Test
+    void testIntentar_FormatoInvalido() {
+        // Assert
+        assertFalse(Rut.intentar(null).isPresent());
+        assertFalse(Rut.intentar("").isPresent());
+        assertFalse(Rut.intentar("5").isPresent());
+        assertFalse(Rut.intentar("12A45678-5").isPresent());
+        assertFalse(Rut.intentar("0-0").isPresent());
+        assertFalse(Rut.intentar("12345678901-1").isPresent());
+    }
+
+    @Test
+    void testDe_CalculaDigitoVerificador() {
+        // Assert
+        assertEquals("11111111-1", Rut.de(11111111L).toString());
+        assertEquals("98765432-5", Rut.de(98765432L).toString());
+    }
+}
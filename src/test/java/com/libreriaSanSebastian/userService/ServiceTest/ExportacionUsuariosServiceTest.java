@@ -0,0 +1,80 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import com.libreriaSanSebastian.userService.service.ExportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportacionUsuariosServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportacionUsuariosService exportacionService;
+
+    private Usuario usuario1;
+    private Usuario usuario2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        Rol rolAdmin = new Rol(1L, "ADMIN", "Administrador");
+        usuario1 = new Usuario(1L, "Pérez, Juan \"JP\"", "juan@email.com", "12345678-5", rolAdmin);
+        usuario2 = new Usuario(2L, "María González", "maria@email.com", "98765432-5", null);
+    }
+
+    @Test
+    void testExportarCsv_EscapaCamposYDesasociaCadaFila() throws Exception {
+        // Arrange
+        when(usuarioRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(usuario1, usuario2));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long filas = exportacionService.exportar(FormatoArchivo.CSV, salida);
+
+        // Assert
+        assertEquals(2, filas);
+        assertEquals("id,nombre,email,rut,rolId,rolNombre\r\n"
+                + "1,\"Pérez, Juan \"\"JP\"\"\",juan@email.com,12345678-5,1,ADMIN\r\n"
+                + "2,María González,maria@email.com,98765432-5,,\r\n",
+                salida.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(1)).detach(usuario1);
+        verify(entityManager, times(1)).detach(usuario2);
+    }
+
+    @Test
+    void testExportarNdjson_UnObjetoPorLinea() throws Exception {
+        // Arrange
+        when(usuarioRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(usuario1, usuario2));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        exportacionService.exportar(FormatoArchivo.NDJSON, salida);
+
+        // Assert
+        assertEquals("{\"id\":1,\"nombre\":\"Pérez, Juan \\\"JP\\\"\",\"email\":\"juan@email.com\",\"rut\":\"12345678-5\","
+                + "\"rolId\":1,\"rolNombre\":\"ADMIN\"}\n"
+                + "{\"id\":2,\"nombre\":\"María González\",\"email\":\"maria@email.com\",\"rut\":\"98765432-5\","
+                + "\"rolId\":null,\"rolNombre\":null}\n",
+                salida.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.model.Rut;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.GeneradorDatosSinteticos;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Levanta la aplicación con el perfil perf (H2 en memoria, sin red) y revisa los datos sembrados.
+ */
+@SpringBootTest(properties = {
+        "perf.datos.roles=5",
+        "perf.datos.usuarios=2000",
+        "perf.datos.semilla=7"
+})
+@ActiveProfiles("perf")
+class GeneradorDatosSinteticosTest {
+
+    private static final String HUELLA = "SELECT u.id, u.nombre, u.email, u.rut, r.nombre FROM usuarios u"
+            + " JOIN roles r ON r.id = u.rol_id ORDER BY u.id";
+
+    @Autowired
+    private GeneradorDatosSinteticos generador;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testPerfilPerf_SiembraRutValidosYEmailsUnicos() {
+        // Act
+        List<String> ruts = jdbcTemplate.queryForList("SELECT rut FROM usuarios", String.class);
+        Long emailsDistintos = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT email_normalizado) FROM usuarios", Long.class);
+        Long roles = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM roles", Long.class);
+        Long rolesUsados = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT rol_id) FROM usuarios", Long.class);
+
+        // Assert
+        assertEquals(2000, ruts.size());
+        assertTrue(ruts.stream().allMatch(rut -> Rut.intentar(rut).map(Rut::toString).orElse("").equals(rut)));
+        assertEquals(2000L, emailsDistintos);
+        assertEquals(5L, roles);
+        assertEquals(5L, rolesUsados);
+        assertEquals(GeneradorDatosSinteticos.rut(1), usuarioService.buscarPorId(1L).orElseThrow().getRut());
+    }
+
+    @Test
+    void testPerfilPerf_LaSecuenciaContinuaTrasLosDatosGenerados() {
+        // Act
+        Usuario nuevo = usuarioService.guardar(new Usuario(null, "Usuario Nuevo", "nuevo@correo.cl",
+                Rut.de(5_000_000L).toString(), null));
+
+        // Assert
+        assertTrue(nuevo.getId() > 2000, "ID asignado: " + nuevo.getId());
+        usuarioService.eliminar(nuevo.getId());
+    }
+
+    @Test
+    void testGenerar_MismaSemillaMismosDatos() {
+        // Arrange
+        List<List<Object>> original = huella();
+
+        // Act
+        vaciar();
+        generador.generar(5, 2000, 7);
+        List<List<Object>> repetido = huella();
+        vaciar();
+        generador.generar(5, 2000, 8);
+        List<List<Object>> otraSemilla = huella();
+
+        // Assert
+        assertEquals(original, repetido);
+        assertNotEquals(original, otraSemilla);
+        assertThrows(IllegalStateException.class, () -> generador.generar(5, 10, 7));
+    }
+
+    private List<List<Object>> huella() {
+        return jdbcTemplate.query(HUELLA, (rs, fila) -> List.of(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getString(5)));
+    }
+
+    private void vaciar() {
+        jdbcTemplate.update("DELETE FROM usuarios");
+        jdbcTemplate.update("DELETE FROM roles");
+    }
+}
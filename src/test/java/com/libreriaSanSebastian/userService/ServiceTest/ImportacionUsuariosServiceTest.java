@@ -0,0 +1,203 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.ImportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.RolService;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ImportacionUsuariosServiceTest {
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Mock
+    private RolService rolService;
+
+    private ImportacionUsuariosService importacionService;
+
+    private Rol rolAdmin;
+    private Rol rolUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importacionService = new ImportacionUsuariosService(2, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(importacionService, "usuarioService", usuarioService);
+        ReflectionTestUtils.setField(importacionService, "rolService", rolService);
+
+        rolAdmin = new Rol(1L, "ADMIN", "Administrador");
+        rolUser = new Rol(2L, "USER", "Usuario");
+        when(rolService.listarTodos()).thenReturn(Arrays.asList(rolAdmin, rolUser));
+        when(usuarioService.guardarLote(anyList()))
+                .thenAnswer(invocacion -> lote(invocacion.<List<Usuario>>getArgument(0).size()));
+    }
+
+    @Test
+    void testImportarCsv_CamposEntreComillasYRolesPorNombre() throws Exception {
+        // Arrange
+        String csv = "\uFEFFnombre,email,rut,rolNombre\r\n"
+                + "\"Pérez, Juan \"\"JP\"\"\",juan@email.com,12345678-5,admin\r\n"
+                + "\"María\nGonzález\",maria@email.com,98765432-5,USER\r\n";
+        List<List<Usuario>> bloques = capturarBloques();
+
+        // Act
+        ResultadoImportacion resultado = importacionService.importar(FormatoArchivo.CSV, entrada(csv));
+
+        // Assert
+        assertEquals(2, resultado.getLeidos());
+        assertEquals(2, resultado.getCreados());
+        assertEquals(0, resultado.getRechazados());
+        assertNull(resultado.getReporte());
+        Usuario juan = bloques.get(0).get(0);
+        assertEquals("Pérez, Juan \"JP\"", juan.getNombre());
+        assertSame(rolAdmin, juan.getRol());
+        assertEquals("María\nGonzález", bloques.get(0).get(1).getNombre());
+        verify(rolService, times(1)).listarTodos();
+    }
+
+    @Test
+    void testImportarNdjson_GuardaEnBloquesDelTamanoConfigurado() throws Exception {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            ndjson.append("{\"nombre\":\"Usuario ").append(i).append("\",\"email\":\"u").append(i)
+                    .append("@email.com\",\"rut\":\"1-9\",\"rolId\":2}\n");
+        }
+        List<List<Usuario>> bloques = capturarBloques();
+
+        // Act
+        ResultadoImportacion resultado = importacionService.importar(FormatoArchivo.NDJSON, entrada(ndjson.toString()));
+
+        // Assert
+        assertEquals(5, resultado.getCreados());
+        assertEquals(List.of(2, 2, 1), bloques.stream().map(List::size).toList());
+        assertSame(rolUser, bloques.get(2).get(0).getRol());
+    }
+
+    @Test
+    void testImportar_FilasInvalidasVanAlReporteSinDetenerLaImportacion() throws Exception {
+        // Arrange
+        String ndjson = "{\"nombre\":\"Juan\",\"email\":\"juan@email.com\",\"rut\":\"12345678-5\",\"rolNombre\":\"ADMIN\"}\n"
+                + "{\"nombre\":\"Ana\",\"rolNombre\":\"GERENTE\"}\n"
+                + "\n"
+                + "{no es json\n"
+                + "{\"nombre\":\"Luis\",\"email\":\"luis@email.com\",\"rut\":\"1-9\"}\n";
+        when(usuarioService.guardarLote(anyList())).thenAnswer(invocacion -> {
+            ResultadoLote resultado = new ResultadoLote();
+            resultado.getCreados().add(new ResultadoLote.Creado(0, 10L));
+            if (invocacion.<List<Usuario>>getArgument(0).size() > 1) {
+                resultado.getRechazados().add(new ResultadoLote.Rechazado(1, "El RUT ya está registrado"));
+            }
+            return resultado;
+        });
+
+        // Act
+        ResultadoImportacion resultado = importacionService.importar(FormatoArchivo.NDJSON, entrada(ndjson));
+
+        // Assert
+        assertEquals(4, resultado.getLeidos());
+        assertEquals(1, resultado.getCreados());
+        assertEquals(3, resultado.getRechazados());
+        assertNotNull(resultado.getReporte());
+        Path reporte = importacionService.buscarReporte(resultado.getReporte()).orElseThrow();
+        List<String> lineas = Files.readAllLines(reporte, StandardCharsets.UTF_8);
+        assertEquals("linea,motivo", lineas.get(0));
+        assertEquals("2,\"El rol GERENTE no existe\"", lineas.get(1));
+        assertTrue(lineas.get(2).startsWith("4,\"JSON inválido"));
+        assertEquals("5,\"El RUT ya está registrado\"", lineas.get(3));
+    }
+
+    @Test
+    void testImportar_BloqueFallidoSeReintentaFilaAFila() throws Exception {
+        // Arrange
+        String csv = "nombre,email,rut,rolId\n"
+                + "A,a@email.com,1-9,1\n"
+                + "B,b@email.com,2-7,1\n"
+                + "C,c@email.com,3-5,1\n";
+        when(usuarioService.guardarLote(anyList())).thenAnswer(invocacion -> {
+            List<Usuario> usuarios = invocacion.getArgument(0);
+            if (usuarios.stream().anyMatch(usuario -> usuario.getNombre().equals("B"))) {
+                throw new IllegalStateException("Conflicto de unicidad");
+            }
+            return lote(usuarios.size());
+        });
+
+        // Act
+        ResultadoImportacion resultado = importacionService.importar(FormatoArchivo.CSV, entrada(csv));
+
+        // Assert
+        assertEquals(3, resultado.getLeidos());
+        assertEquals(2, resultado.getCreados());
+        assertEquals(1, resultado.getRechazados());
+        List<String> lineas = Files.readAllLines(importacionService.buscarReporte(resultado.getReporte()).orElseThrow());
+        assertEquals(List.of("linea,motivo", "3,\"Conflicto de unicidad\""), lineas);
+        verify(usuarioService, times(4)).guardarLote(anyList());
+    }
+
+    @Test
+    void testImportarCsv_ColumnasFaltantesYComillasSinCerrar() throws Exception {
+        // Arrange
+        String csv = "nombre,email,rut\n"
+                + "Solo nombre\n"
+                + "\"Sin cerrar,x@email.com,1-9\n";
+
+        // Act
+        ResultadoImportacion resultado = importacionService.importar(FormatoArchivo.CSV, entrada(csv));
+
+        // Assert
+        assertEquals(2, resultado.getLeidos());
+        assertEquals(0, resultado.getCreados());
+        assertEquals(2, resultado.getRechazados());
+        verify(usuarioService, never()).guardarLote(anyList());
+    }
+
+    @Test
+    void testBuscarReporte_Inexistente() {
+        // Act & Assert
+        assertTrue(importacionService.buscarReporte("no-existe").isEmpty());
+    }
+
+    private List<List<Usuario>> capturarBloques() {
+        List<List<Usuario>> bloques = new ArrayList<>();
+        when(usuarioService.guardarLote(anyList())).thenAnswer(invocacion -> {
+            List<Usuario> bloque = invocacion.getArgument(0);
+            bloques.add(new ArrayList<>(bloque));
+            return lote(bloque.size());
+        });
+        return bloques;
+    }
+
+    private static ResultadoLote lote(int creados) {
+        ResultadoLote resultado = new ResultadoLote();
+        for (int i = 0; i < creados; i++) {
+            resultado.getCreados().add(new ResultadoLote.Creado(i, (long) i + 1));
+        }
+        return resultado;
+    }
+
+    private static ByteArrayInputStream entrada(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,136 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.service.IndiceBusquedaUsuarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceBusquedaUsuariosTest {
+
+    private IndiceBusquedaUsuarios indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaUsuarios();
+        indice.indexar(1L, "Juan Pérez");
+        indice.indexar(2L, "María González");
+        indice.indexar(3L, "Juana Pérez Soto");
+        indice.indexar(4L, "Pedro Juan Silva");
+        indice.indexar(5L, "Juan Pérez");
+    }
+
+    @Test
+    void testPrefijoSinTildesNiMayusculas() {
+        // Act
+        List<Long> ids = indice.buscar("MARIA gonz", 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    void testRankingNombreQueComienzaConLaConsultaPrimero() {
+        // Act
+        List<Long> ids = indice.buscar("juan", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 5L, 3L, 4L), ids);
+    }
+
+    @Test
+    void testTodasLasPalabrasDebenCoincidir() {
+        // Act
+        List<Long> ids = indice.buscar("juan sil", 10);
+
+        // Assert
+        assertEquals(List.of(4L), ids);
+    }
+
+    @Test
+    void testErrorDeTipeo() {
+        // Act
+        List<Long> ids = indice.buscar("gonzales", 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    void testActualizarYQuitar() {
+        // Act
+        indice.indexar(2L, "María Fernández");
+        indice.quitar(1L);
+
+        // Assert
+        assertTrue(indice.buscar("gonzalez", 10).isEmpty());
+        assertEquals(List.of(2L), indice.buscar("fernandez", 10));
+        assertEquals(List.of(5L), indice.buscar("juan perez", 1));
+    }
+
+    @Test
+    void testRankingConsideraTodosLosCandidatos() {
+        // Arrange
+        for (long id = 100; id < 2600; id++) {
+            indice.indexar(id, "Juanito Soto Rojas");
+        }
+        indice.indexar(3000L, "Juanito Paz");
+
+        // Act
+        List<Long> ids = indice.buscar("juanito", 1);
+
+        // Assert
+        assertEquals(List.of(3000L), ids);
+    }
+
+    @Test
+    void testPrefijoMuyAmplio_RevisaPrimeroLaPalabraExacta() {
+        // Arrange
+        for (long id = 100; id < 100 + IndiceBusquedaUsuarios.MAX_PUNTUADOS + 500; id++) {
+            indice.indexar(id, "Juanito Soto");
+        }
+        indice.indexar(50_000L, "Juan Paz");
+
+        // Act
+        List<Long> ids = indice.buscar("juan", 1);
+
+        // Assert
+        assertEquals(List.of(50_000L), ids);
+    }
+
+    @Test
+    void testCargaInicialNoPisaCambiosConcurrentes() {
+        // Arrange
+        IndiceBusquedaUsuarios enCarga = new IndiceBusquedaUsuarios();
+        enCarga.indexar(1L, "María Fernández");
+        enCarga.quitar(2L);
+
+        // Act: la carga aplica filas que leyó antes de esos cambios
+        enCarga.cargar(1L, "Juan Pérez");
+        enCarga.cargar(2L, "Pedro Silva");
+        enCarga.cargar(3L, "Ana Rojas");
+        enCarga.marcarListo();
+
+        // Assert
+        assertEquals(List.of(1L), enCarga.buscar("fernandez", 10));
+        assertTrue(enCarga.buscar("juan", 10).isEmpty());
+        assertTrue(enCarga.buscar("pedro", 10).isEmpty());
+        assertEquals(List.of(3L), enCarga.buscar("ana", 10));
+    }
+
+    @Test
+    void testPalabrasSinUsuariosSalenDelDiccionario() {
+        // Arrange
+        int antes = indice.palabrasIndexadas();
+
+        // Act
+        indice.indexar(2L, "María Fernández");
+        indice.quitar(2L);
+
+        // Assert
+        assertEquals(antes - 2, indice.palabrasIndexadas());
+        assertTrue(indice.buscar("gonzalez", 10).isEmpty());
+    }
+}
@@ -0,0 +1,177 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.config.CacheConfig;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.repository.RolRepository;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
+import com.libreriaSanSebastian.userService.service.RolService;
+import com.libreriaSanSebastian.userService.service.UsuarioCache;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({RolServiceCacheTest.Transacciones.class, CacheConfig.class, RolService.class})
+class RolServiceCacheTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Transacciones {
+    }
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private RolRepository rolRepository;
+
+    @MockBean
+    private UsuarioRepository usuarioRepository;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private RolService rolService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Rol rol1;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+
+        rol1 = new Rol();
+        rol1.setId(1L);
+        rol1.setNombre("ADMIN");
+        rol1.setDescripcion("Administrador del sistema");
+    }
+
+    @Test
+    void testBuscarPorId_SegundaLecturaDesdeCache() {
+        // Arrange
+        when(rolRepository.findById(1L)).thenReturn(Optional.of(rol1));
+
+        // Act
+        rolService.buscarPorId(1L);
+        Optional<Rol> rolEncontrado = rolService.buscarPorId(1L);
+
+        // Assert
+        assertTrue(rolEncontrado.isPresent());
+        assertEquals("ADMIN", rolEncontrado.get().getNombre());
+        verify(rolRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testBuscarPorNombre_SegundaLecturaDesdeCache() {
+        // Arrange
+        when(rolRepository.findByNombre("ADMIN")).thenReturn(rol1);
+
+        // Act
+        rolService.buscarPorNombre("ADMIN");
+        Optional<Rol> rolEncontrado = rolService.buscarPorNombre("ADMIN");
+
+        // Assert
+        assertTrue(rolEncontrado.isPresent());
+        verify(rolRepository, times(1)).findByNombre("ADMIN");
+    }
+
+    @Test
+    void testGuardar_ActualizaPorIdEInvalidaNombreYLista() {
+        // Arrange
+        Rol renombrado = new Rol(1L, "SUPERADMIN", "Administrador del sistema");
+        when(rolRepository.findAll()).thenReturn(List.of(rol1));
+        when(rolRepository.findByNombre("ADMIN")).thenReturn(rol1);
+        when(rolRepository.save(any(Rol.class))).thenReturn(renombrado);
+        rolService.listarTodos();
+        rolService.buscarPorNombre("ADMIN");
+
+        // Act
+        rolService.guardar(renombrado);
+        when(rolRepository.findByNombre("ADMIN")).thenReturn(null);
+        when(rolRepository.findAll()).thenReturn(List.of(renombrado));
+
+        // Assert
+        assertEquals("SUPERADMIN", rolService.buscarPorId(1L).get().getNombre());
+        assertFalse(rolService.buscarPorNombre("ADMIN").isPresent());
+        assertEquals("SUPERADMIN", rolService.listarTodos().get(0).getNombre());
+        verify(rolRepository, never()).findById(1L);
+        verify(rolRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testEliminar_InvalidaEntradaPorId() {
+        // Arrange
+        when(rolRepository.findById(1L)).thenReturn(Optional.of(rol1));
+        rolService.buscarPorId(1L);
+
+        // Act
+        rolService.eliminar(1L);
+        when(rolRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Assert
+        assertFalse(rolService.buscarPorId(1L).isPresent());
+        verify(rolRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testEliminar_InvalidaDespuesDelCommit() {
+        // Arrange
+        when(rolRepository.findById(1L)).thenReturn(Optional.of(rol1));
+        when(rolRepository.eliminarPorId(1L)).thenReturn(1);
+        rolService.buscarPorId(1L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        List<Boolean> enCacheAlHacerCommit = new ArrayList<>();
+        doAnswer(invocacion -> enCacheAlHacerCommit.add(cacheManager.getCache(CacheConfig.ROLES).get(1L) != null))
+                .when(transactionManager).commit(any());
+
+        // Act
+        rolService.eliminar(1L);
+
+        // Assert
+        assertEquals(List.of(true), enCacheAlHacerCommit);
+        assertNull(cacheManager.getCache(CacheConfig.ROLES).get(1L));
+    }
+
+    @Test
+    void testListarPagina_NoCompartePosicionesConListarTodos() {
+        // Arrange
+        when(rolRepository.findAll()).thenReturn(List.of(rol1));
+        when(rolRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(rol1));
+
+        // Act
+        List<Rol> todos = rolService.listarTodos();
+        Pagina<Rol> pagina = rolService.listarPagina(null, null);
+
+        // Assert
+        assertEquals(List.of(rol1), todos);
+        assertNotNull(pagina);
+        assertNotNull(cacheManager.getCache(CacheConfig.ROLES_LISTA).get(SimpleKey.EMPTY));
+        assertNull(cacheManager.getCache(CacheConfig.ROLES_LISTA).get(new SimpleKey(null, null)));
+        assertNotNull(cacheManager.getCache(CacheConfig.ROLES_PAGINAS).get(new SimpleKey(null, null)));
+    }
+}
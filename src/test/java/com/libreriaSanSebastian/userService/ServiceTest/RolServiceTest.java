@@ -1,16 +1,24 @@
 package com.libreriaSanSebastian.userService.ServiceTest;
 
 import com.libreriaSanSebastian.userService.service.RolService;
+import com.libreriaSanSebastian.userService.service.UsuarioCache;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import com.libreriaSanSebastian.userService.dto.EstadisticasRoles;
+import com.libreriaSanSebastian.userService.dto.Pagina;
 import com.libreriaSanSebastian.userService.model.Rol;
 import com.libreriaSanSebastian.userService.repository.RolRepository;
+import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +29,15 @@ class RolServiceTest {
     @Mock
     private RolRepository rolRepository;
 
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Mock
+    private UsuarioCache usuarioCache;
+
     @InjectMocks
     private RolService rolService;
 
@@ -60,6 +77,49 @@ class RolServiceTest {
         verify(rolRepository, times(1)).findAll();
     }
 
+    @Test
+    void testListarPagina_ConPaginaSiguiente() {
+        // Arrange: se piden limite + 1 filas para saber si existe otra página
+        when(rolRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(rol1, rol2));
+
+        // Act
+        Pagina<Rol> pagina = rolService.listarPagina(null, 1);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertEquals(1L, pagina.getSiguiente());
+        assertEquals(1, pagina.getLimite());
+    }
+
+    @Test
+    void testListarPagina_UltimaPagina() {
+        // Arrange
+        when(rolRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, Pagina.LIMITE_POR_DEFECTO + 1)))
+                .thenReturn(List.of(rol2));
+
+        // Act
+        Pagina<Rol> pagina = rolService.listarPagina(1L, null);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertNull(pagina.getSiguiente());
+    }
+
+    @Test
+    void testListarPagina_LimiteExcedeMaximo() {
+        // Arrange
+        when(rolRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, Pagina.LIMITE_MAXIMO + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        Pagina<Rol> pagina = rolService.listarPagina(null, 100_000);
+
+        // Assert
+        assertEquals(Pagina.LIMITE_MAXIMO, pagina.getLimite());
+        verify(rolRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, Pagina.LIMITE_MAXIMO + 1));
+    }
+
     @Test
     void testBuscarPorId_Existente() {
         // Arrange
@@ -144,15 +204,120 @@ class RolServiceTest {
         verify(rolRepository, times(1)).save(nuevoRol);
     }
 
+    @Test
+    void testActualizarParcial_VersionDesactualizada() {
+        // Arrange
+        Map<String, Object> cambios = Map.of("descripcion", "Nueva descripción");
+        when(rolRepository.actualizarVersionado(Rol.class, 1L, 0L, cambios)).thenReturn(0);
+        when(rolRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> rolService.actualizarParcial(1L, 0L, cambios));
+    }
+
+    @Test
+    void testActualizarParcial_NoExistente() {
+        // Arrange
+        when(rolRepository.actualizarVersionado(eq(Rol.class), eq(99L), eq(0L), anyMap())).thenReturn(0);
+        when(rolRepository.existsById(99L)).thenReturn(false);
+        when(rolRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Rol> resultado = rolService.actualizarParcial(99L, 0L, Map.of("nombre", "OTRO"));
+
+        // Assert
+        assertFalse(resultado.isPresent());
+        verify(usuarioCache, never()).invalidarPorRol(any());
+    }
+
+    @Test
+    void testActualizarParcial_InvalidaUsuariosDelRol() {
+        // Arrange
+        Map<String, Object> cambios = Map.of("nombre", "SUPERADMIN");
+        when(rolRepository.actualizarVersionado(Rol.class, 1L, 0L, cambios)).thenReturn(1);
+        when(rolRepository.findById(1L)).thenReturn(Optional.of(rol1));
+
+        // Act
+        rolService.actualizarParcial(1L, 0L, cambios);
+
+        // Assert
+        verify(usuarioCache, times(1)).invalidarPorRol(1L);
+    }
+
     @Test
     void testEliminar() {
         // Arrange
         Long idAEliminar = 1L;
 
+        when(rolRepository.eliminarPorId(idAEliminar)).thenReturn(1);
+
+        // Act
+        boolean eliminado = rolService.eliminar(idAEliminar);
+
+        // Assert
+        assertTrue(eliminado);
+        verify(rolRepository, times(1)).eliminarPorId(idAEliminar);
+        verify(rolRepository, never()).deleteById(any());
+        verify(usuarioCache, times(1)).invalidarPorRol(idAEliminar);
+    }
+
+    @Test
+    void testEliminar_ReasignandoUsuarios() {
+        // Arrange
+        when(rolRepository.existsById(2L)).thenReturn(true);
+        when(usuarioService.reasignarRol(1L, 2L)).thenReturn(5);
+        when(rolRepository.eliminarPorId(1L)).thenReturn(1);
+
+        // Act
+        Optional<Integer> reasignados = rolService.eliminar(1L, 2L);
+
+        // Assert
+        assertEquals(Optional.of(5), reasignados);
+        verify(usuarioService, times(1)).reasignarRol(1L, 2L);
+        verify(rolRepository, times(1)).eliminarPorId(1L);
+        verify(usuarioCache, times(1)).invalidarPorRol(1L);
+    }
+
+    @Test
+    void testReasignarUsuarios_DestinoInvalido() {
+        // Arrange
+        when(rolRepository.existsById(9L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> rolService.reasignarUsuarios(1L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> rolService.reasignarUsuarios(1L, 9L));
+        assertThrows(IllegalArgumentException.class, () -> rolService.eliminar(1L, 9L));
+        verify(usuarioService, never()).reasignarRol(any(), any());
+        verify(rolRepository, never()).eliminarPorId(any());
+    }
+
+    @Test
+    void testEstadisticas_DesdeUnGroupBy() {
+        // Arrange
+        when(usuarioRepository.contarPorRol()).thenReturn(Arrays.asList(
+                new Object[]{1L, 3L}, new Object[]{2L, 7L}, new Object[]{null, 2L}));
+        when(rolRepository.findAll()).thenReturn(Arrays.asList(rol1, rol2));
+
+        // Act
+        EstadisticasRoles estadisticas = rolService.estadisticas();
+
+        // Assert
+        assertEquals(12, estadisticas.getTotalUsuarios());
+        assertEquals(2, estadisticas.getUsuariosSinRol());
+        assertEquals("USER", estadisticas.getRoles().get(0).getRol().getNombre());
+        assertEquals(7, estadisticas.getRoles().get(0).getUsuarioCount());
+        assertEquals(3, estadisticas.getRoles().get(1).getUsuarioCount());
+        verify(usuarioRepository, never()).findAll();
+    }
+
+    @Test
+    void testContarUsuarios_SinRolesNoConsulta() {
         // Act
-        rolService.eliminar(idAEliminar);
+        Map<Long, Long> conteos = rolService.contarUsuarios(List.of());
 
         // Assert
-        verify(rolRepository, times(1)).deleteById(idAEliminar);
+        assertTrue(conteos.isEmpty());
+        verify(usuarioRepository, never()).contarPorRoles(anyList());
     }
-}
\ No newline at end of file
+}
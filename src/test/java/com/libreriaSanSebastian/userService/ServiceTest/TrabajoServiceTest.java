@@ -0,0 +1,223 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.dto.ResultadoImportacion;
+import com.libreriaSanSebastian.userService.model.Trabajo;
+import com.libreriaSanSebastian.userService.repository.TrabajoRepository;
+import com.libreriaSanSebastian.userService.service.ExportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.FormatoArchivo;
+import com.libreriaSanSebastian.userService.service.ImportacionUsuariosService;
+import com.libreriaSanSebastian.userService.service.Progreso;
+import com.libreriaSanSebastian.userService.service.TrabajoService;
+import com.libreriaSanSebastian.userService.service.UsuarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrabajoServiceTest {
+
+    @Mock
+    private TrabajoRepository trabajoRepository;
+
+    @Mock
+    private ImportacionUsuariosService importacionService;
+
+    @Mock
+    private ExportacionUsuariosService exportacionService;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @TempDir
+    private Path directorio;
+
+    private TrabajoService trabajoService;
+
+    private final Map<Long, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        trabajoService = crearServicio(1, 10);
+
+        AtomicLong secuencia = new AtomicLong();
+        when(trabajoRepository.save(any(Trabajo.class))).thenAnswer(invocacion -> {
+            Trabajo trabajo = invocacion.getArgument(0);
+            trabajo.setId(secuencia.incrementAndGet());
+            trabajos.put(trabajo.getId(), trabajo);
+            return trabajo;
+        });
+        when(trabajoRepository.findById(anyLong()))
+                .thenAnswer(invocacion -> Optional.ofNullable(trabajos.get(invocacion.<Long>getArgument(0))));
+        when(trabajoRepository.iniciar(anyLong(), any())).thenAnswer(invocacion -> {
+            Trabajo trabajo = trabajos.get(invocacion.<Long>getArgument(0));
+            if (trabajo.getEstado() != Trabajo.Estado.PENDIENTE) {
+                return 0;
+            }
+            trabajo.setEstado(Trabajo.Estado.EN_CURSO);
+            return 1;
+        });
+        when(trabajoRepository.terminar(anyLong(), any(), any(), any(), any())).thenAnswer(invocacion -> {
+            Trabajo trabajo = trabajos.get(invocacion.<Long>getArgument(0));
+            if (trabajo.getEstado().isTerminado()) {
+                return 0;
+            }
+            trabajo.setEstado(invocacion.getArgument(1));
+            trabajo.setMensaje(invocacion.getArgument(2));
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        trabajoService.detener();
+    }
+
+    @Test
+    void testImportar_CopiaLaEntradaYTerminaCompletado() throws Exception {
+        // Arrange
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        resultado.setCreados(2);
+        resultado.setRechazados(1);
+        resultado.setReporte("abc");
+        List<String> recibido = new ArrayList<>();
+        when(importacionService.importar(eq(FormatoArchivo.CSV), any(), any())).thenAnswer(invocacion -> {
+            recibido.add(new String(invocacion.<InputStream>getArgument(1).readAllBytes(), StandardCharsets.UTF_8));
+            return resultado;
+        });
+
+        // Act
+        Trabajo trabajo = trabajoService.importar(FormatoArchivo.CSV, entrada("nombre,email,rut\nA,a@email.com,1-9\n"));
+
+        // Assert
+        verify(trabajoRepository, timeout(2000)).terminar(eq(trabajo.getId()), eq(Trabajo.Estado.COMPLETADO),
+                eq("2 usuarios creados, 1 filas rechazadas"), eq("abc"), any());
+        assertEquals(List.of("nombre,email,rut\nA,a@email.com,1-9\n"), recibido);
+        assertFalse(Files.exists(directorio.resolve("trabajo-" + trabajo.getId() + ".entrada")));
+    }
+
+    @Test
+    void testEliminar_EnLotesDelLimite() throws Exception {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        List<Integer> lotes = new ArrayList<>();
+        when(usuarioService.eliminarLote(anyList())).thenAnswer(invocacion -> {
+            lotes.add(invocacion.<List<Long>>getArgument(0).size());
+            return invocacion.<List<Long>>getArgument(0).size();
+        });
+
+        // Act
+        Trabajo trabajo = trabajoService.eliminar(ids);
+
+        // Assert
+        verify(trabajoRepository, timeout(2000)).terminar(eq(trabajo.getId()), eq(Trabajo.Estado.COMPLETADO),
+                eq("2500 usuarios eliminados"), isNull(), any());
+        assertEquals(List.of(1000, 1000, 500), lotes);
+        verify(trabajoRepository, atLeastOnce()).actualizarAvance(trabajo.getId(), 2500, 0);
+    }
+
+    @Test
+    void testCancelar_EnCursoSeDetieneAlTerminarElLote() throws Exception {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 3000).boxed().toList();
+        when(usuarioService.eliminarLote(anyList())).thenAnswer(invocacion -> {
+            trabajoService.cancelar(1L);
+            return UsuarioService.LIMITE_LOTE;
+        });
+
+        // Act
+        Trabajo trabajo = trabajoService.eliminar(ids);
+
+        // Assert
+        verify(trabajoRepository, timeout(2000)).terminar(eq(trabajo.getId()), eq(Trabajo.Estado.CANCELADO),
+                eq("1000 usuarios eliminados"), isNull(), any());
+        verify(usuarioService, times(1)).eliminarLote(anyList());
+    }
+
+    @Test
+    void testCancelar_PendienteNoComienza_YColaLlenaRechaza() throws Exception {
+        // Arrange
+        trabajoService.detener();
+        trabajoService = crearServicio(1, 1);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        when(exportacionService.exportar(any(), any(), any())).thenAnswer(invocacion -> {
+            bloqueo.await(2, TimeUnit.SECONDS);
+            return 0L;
+        });
+        Trabajo enCurso = trabajoService.exportar(FormatoArchivo.NDJSON);
+        verify(exportacionService, timeout(2000)).exportar(any(), any(OutputStream.class), any(Progreso.class));
+        Trabajo pendiente = trabajoService.exportar(FormatoArchivo.CSV);
+
+        // Act
+        assertThrows(RejectedExecutionException.class, () -> trabajoService.exportar(FormatoArchivo.CSV));
+        Optional<Trabajo> cancelado = trabajoService.cancelar(pendiente.getId());
+        bloqueo.countDown();
+
+        // Assert
+        assertEquals(Trabajo.Estado.CANCELADO, cancelado.orElseThrow().getEstado());
+        verify(trabajoRepository, timeout(2000)).terminar(eq(enCurso.getId()), eq(Trabajo.Estado.COMPLETADO),
+                any(), isNull(), any());
+        assertEquals(Trabajo.Estado.FALLIDO, trabajos.get(3L).getEstado());
+        verify(exportacionService, times(1)).exportar(any(), any(), any());
+    }
+
+    @Test
+    void testRecuperar_InterrumpeLosEnCursoYReencolaLosPendientes() throws Exception {
+        // Arrange
+        Trabajo enCurso = new Trabajo(Trabajo.Tipo.IMPORTACION, "csv");
+        enCurso.setId(10L);
+        enCurso.setEstado(Trabajo.Estado.EN_CURSO);
+        Trabajo pendiente = new Trabajo(Trabajo.Tipo.EXPORTACION, "ndjson");
+        pendiente.setId(11L);
+        trabajos.put(10L, enCurso);
+        trabajos.put(11L, pendiente);
+        when(trabajoRepository.findByEstadoIn(any())).thenReturn(List.of(enCurso, pendiente));
+        when(exportacionService.exportar(any(), any(), any())).thenReturn(5L);
+
+        // Act
+        trabajoService.recuperar();
+
+        // Assert
+        verify(trabajoRepository, timeout(2000)).terminar(eq(11L), eq(Trabajo.Estado.COMPLETADO),
+                eq("5 usuarios exportados"), isNull(), any());
+        assertEquals(Trabajo.Estado.INTERRUMPIDO, enCurso.getEstado());
+        assertTrue(trabajoService.buscarResultado(pendiente).isPresent());
+    }
+
+    private TrabajoService crearServicio(int concurrencia, int cola) throws Exception {
+        TrabajoService servicio = new TrabajoService(concurrencia, cola, directorio);
+        ReflectionTestUtils.setField(servicio, "trabajoRepository", trabajoRepository);
+        ReflectionTestUtils.setField(servicio, "importacionService", importacionService);
+        ReflectionTestUtils.setField(servicio, "exportacionService", exportacionService);
+        ReflectionTestUtils.setField(servicio, "usuarioService", usuarioService);
+        return servicio;
+    }
+
+    private static ByteArrayInputStream entrada(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,242 @@
+package com.libreriaSanSebastian.userService.ServiceTest;
+
+import com.libreriaSanSebastian.userService.dto.EstadisticasCache;
+import com.libreriaSanSebastian.userService.model.Rol;
+import com.libreriaSanSebastian.userService.model.Usuario;
+import com.libreriaSanSebastian.userService.service.UsuarioCache;
+import com.libreriaSanSebastian.userService.service.UsuarioCache.TipoClave;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioCacheTest {
+
+    private UsuarioCache usuarioCache;
+
+    private Usuario usuario1;
+
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        usuarioCache = new UsuarioCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cargas = new AtomicInteger();
+
+        usuario1 = new Usuario();
+        usuario1.setId(1L);
+        usuario1.setNombre("Juan Pérez");
+        usuario1.setEmail("juan@email.com");
+        usuario1.setRut("12345678-9");
+    }
+
+    private Supplier<Optional<Usuario>> cargador(Usuario usuario) {
+        return () -> {
+            cargas.incrementAndGet();
+            return Optional.ofNullable(usuario);
+        };
+    }
+
+    @Test
+    void testMismaEntradaParaIdRutYEmail() {
+        // Act
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+        Optional<Usuario> porRut = usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(usuario1));
+        Optional<Usuario> porEmail = usuarioCache.buscar(TipoClave.EMAIL, "juan@email.com", cargador(usuario1));
+
+        // Assert
+        assertEquals(usuario1, porRut.get());
+        assertEquals(usuario1, porEmail.get());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testNombreSoloSeRegistraDesdeUnaBusquedaPorNombre() {
+        // Arrange
+        Usuario homonimo = new Usuario(7L, "Juan Pérez", "otro@email.com", "11111111-1", null);
+
+        // Act
+        usuarioCache.buscar(TipoClave.NOMBRE, "Juan Pérez", cargador(usuario1));
+        usuarioCache.buscar(TipoClave.ID, 7L, cargador(homonimo));
+        Optional<Usuario> porNombre = usuarioCache.buscar(TipoClave.NOMBRE, "Juan Pérez", cargador(homonimo));
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Assert
+        assertEquals(1L, porNombre.get().getId());
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testCambioDeRutDejaDeIndexarElAnterior() {
+        // Arrange
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+        Usuario actualizado = new Usuario(1L, "Juan Pérez", "juan@email.com", "11111111-1", null);
+
+        // Act
+        usuarioCache.invalidar(actualizado);
+        Optional<Usuario> porRutAnterior = usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(null));
+        Optional<Usuario> porRutNuevo = usuarioCache.buscar(TipoClave.RUT, "11111111-1", cargador(actualizado));
+
+        // Assert
+        assertFalse(porRutAnterior.isPresent());
+        assertEquals(1L, porRutNuevo.get().getId());
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    void testBusquedaNegativaSeRecuerda() {
+        // Act
+        usuarioCache.buscar(TipoClave.ID, 99L, cargador(null));
+        Optional<Usuario> segunda = usuarioCache.buscar(TipoClave.ID, 99L, cargador(null));
+
+        // Assert
+        assertFalse(segunda.isPresent());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testBusquedaNegativaExpira() throws InterruptedException {
+        // Arrange
+        usuarioCache = new UsuarioCache(100, Duration.ofMinutes(1), Duration.ofMillis(20));
+        usuarioCache.buscar(TipoClave.ID, 99L, cargador(null));
+
+        // Act
+        Thread.sleep(50);
+        usuarioCache.buscar(TipoClave.ID, 99L, cargador(null));
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testUsuarioCreadoAnulaBusquedaNegativa() {
+        // Arrange
+        usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(null));
+
+        // Act
+        usuarioCache.invalidar(usuario1);
+        Optional<Usuario> encontrado = usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(usuario1));
+
+        // Assert
+        assertTrue(encontrado.isPresent());
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testEliminarQuitaTodasLasClaves() {
+        // Arrange
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Act
+        usuarioCache.invalidar(1L);
+        usuarioCache.buscar(TipoClave.NOMBRE, "Juan Pérez", cargador(null));
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testInvalidarPorRol_SoloDescartaLosUsuariosDeEseRol() {
+        // Arrange
+        Rol admin = new Rol();
+        admin.setId(1L);
+        Rol cliente = new Rol();
+        cliente.setId(2L);
+        usuario1.setRol(admin);
+        Usuario usuario2 = new Usuario();
+        usuario2.setId(2L);
+        usuario2.setNombre("María González");
+        usuario2.setRol(cliente);
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+        usuarioCache.buscar(TipoClave.ID, 2L, cargador(usuario2));
+
+        // Act
+        usuarioCache.invalidarPorRol(1L);
+        usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(usuario1));
+        usuarioCache.buscar(TipoClave.ID, 2L, cargador(usuario2));
+
+        // Assert
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    void testCargaQueCruzaUnaInvalidacion_NoQuedaEnCache() {
+        // Arrange: la carga lee la fila y, antes de registrarla, otra petición confirma un cambio
+        Supplier<Optional<Usuario>> cargaLenta = () -> {
+            cargas.incrementAndGet();
+            Optional<Usuario> leido = Optional.of(usuario1);
+            usuarioCache.invalidar(1L);
+            return leido;
+        };
+
+        // Act
+        usuarioCache.buscar(TipoClave.ID, 1L, cargaLenta);
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testModificarElUsuarioEntregadoNoAlteraElCache() {
+        // Arrange
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Act
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1)).get().setNombre("Otro");
+        usuario1.setEmail("cambiado@email.com");
+        Optional<Usuario> enCache = usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Assert
+        assertEquals("Juan Pérez", enCache.get().getNombre());
+        assertEquals("juan@email.com", enCache.get().getEmail());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testEstadisticasPorTipoDeClave() {
+        // Arrange
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+        usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(usuario1));
+        usuarioCache.buscar(TipoClave.RUT, "12345678-9", cargador(usuario1));
+
+        // Act
+        List<EstadisticasCache> estadisticas = usuarioCache.estadisticas();
+
+        // Assert
+        EstadisticasCache porId = estadisticas.get(0);
+        EstadisticasCache porRut = estadisticas.get(1);
+        assertEquals("usuarios.id", porId.getNombre());
+        assertEquals(0, porId.getAciertos());
+        assertEquals(1, porId.getFallos());
+        assertEquals("usuarios.rut", porRut.getNombre());
+        assertEquals(2, porRut.getAciertos());
+        assertEquals(1.0, porRut.getTasaAciertos());
+    }
+
+    @Test
+    void testMetricasPorTipoDeClave() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        usuarioCache.bindTo(registry);
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+        usuarioCache.buscar(TipoClave.ID, 1L, cargador(usuario1));
+
+        // Act
+        double aciertos = registry.get("usuarios.cache.gets").tags("clave", "id", "result", "hit").functionCounter().count();
+        double fallos = registry.get("usuarios.cache.gets").tags("clave", "id", "result", "miss").functionCounter().count();
+        double tamano = registry.get("usuarios.cache.size").gauge().value();
+
+        // Assert
+        assertEquals(1.0, aciertos);
+        assertEquals(1.0, fallos);
+        assertEquals(1.0, tamano);
+    }
+}
@@ -1,6 +1,13 @@
 package com.libreriaSanSebastian.userService.ServiceTest;
 
+import com.libreriaSanSebastian.userService.service.IndiceBusquedaUsuarios;
+import com.libreriaSanSebastian.userService.service.UsuarioCache;
 import com.libreriaSanSebastian.userService.service.UsuarioService;
+import jakarta.persistence.EntityManager;
+import com.libreriaSanSebastian.userService.dto.Pagina;
+import com.libreriaSanSebastian.userService.dto.BusquedaMultiple;
+import com.libreriaSanSebastian.userService.dto.ResultadoLote;
+import com.libreriaSanSebastian.userService.dto.UsuarioResumen;
 import com.libreriaSanSebastian.userService.model.Rol;
 import com.libreriaSanSebastian.userService.model.Usuario;
 import com.libreriaSanSebastian.userService.repository.UsuarioRepository;
@@ -9,9 +16,20 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +40,15 @@ class UsuarioServiceTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private UsuarioCache usuarioCache = new UsuarioCache(100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+    @Spy
+    private IndiceBusquedaUsuarios indiceBusqueda = new IndiceBusquedaUsuarios();
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -42,14 +69,14 @@ class UsuarioServiceTest {
         usuario1.setId(1L);
         usuario1.setNombre("Juan Pérez");
         usuario1.setEmail("juan@email.com");
-        usuario1.setRut("12345678-9");
+        usuario1.setRut("12345678-5");
         usuario1.setRol(rolAdmin);
 
         usuario2 = new Usuario();
         usuario2.setId(2L);
         usuario2.setNombre("María González");
         usuario2.setEmail("maria@email.com");
-        usuario2.setRut("98765432-1");
+        usuario2.setRut("98765432-5");
         usuario2.setRol(rolAdmin);
     }
 
@@ -71,6 +98,49 @@ class UsuarioServiceTest {
         verify(usuarioRepository, times(1)).findAll();
     }
 
+    @Test
+    void testListarPagina_ConPaginaSiguiente() {
+        // Arrange: se piden limite + 1 filas para saber si existe otra página
+        when(usuarioRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(usuario1, usuario2));
+
+        // Act
+        Pagina<Usuario> pagina = usuarioService.listarPagina(null, 1);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertEquals(1L, pagina.getSiguiente());
+        assertEquals(1, pagina.getLimite());
+    }
+
+    @Test
+    void testListarPagina_UltimaPagina() {
+        // Arrange
+        when(usuarioRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, Pagina.LIMITE_POR_DEFECTO + 1)))
+                .thenReturn(List.of(usuario2));
+
+        // Act
+        Pagina<Usuario> pagina = usuarioService.listarPagina(1L, null);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertNull(pagina.getSiguiente());
+    }
+
+    @Test
+    void testListarPagina_LimiteExcedeMaximo() {
+        // Arrange
+        when(usuarioRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, Pagina.LIMITE_MAXIMO + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        Pagina<Usuario> pagina = usuarioService.listarPagina(null, 100_000);
+
+        // Assert
+        assertEquals(Pagina.LIMITE_MAXIMO, pagina.getLimite());
+        verify(usuarioRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, Pagina.LIMITE_MAXIMO + 1));
+    }
+
     @Test
     void testBuscarPorId_Existente() {
         // Arrange
@@ -90,7 +160,7 @@ class UsuarioServiceTest {
     @Test
     void testBuscarPorNombre_Existente() {
         // Arrange
-        when(usuarioRepository.findByNombre("Juan Pérez")).thenReturn(usuario1);
+        when(usuarioRepository.findFirstByNombreOrderByIdAsc("Juan Pérez")).thenReturn(usuario1);
 
         // Act
         Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorNombre("Juan Pérez");
@@ -99,22 +169,157 @@ class UsuarioServiceTest {
         assertTrue(usuarioEncontrado.isPresent());
         assertEquals("Juan Pérez", usuarioEncontrado.get().getNombre());
         
-        verify(usuarioRepository, times(1)).findByNombre("Juan Pérez");
+        verify(usuarioRepository, times(1)).findFirstByNombreOrderByIdAsc("Juan Pérez");
+    }
+
+    @Test
+    void testBuscarPorEmail_SinDistinguirMayusculas() {
+        // Arrange
+        when(usuarioRepository.findByEmailNormalizado("juan@email.com")).thenReturn(usuario1);
+
+        // Act
+        Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorEmail(" Juan@Email.COM");
+        Optional<Usuario> desdeCache = usuarioService.buscarPorEmail("juan@email.com");
+
+        // Assert
+        assertTrue(usuarioEncontrado.isPresent());
+        assertEquals(usuarioEncontrado.get(), desdeCache.get());
+        verify(usuarioRepository, times(1)).findByEmailNormalizado("juan@email.com");
+    }
+
+    @Test
+    void testBuscarPorTexto_UsaElIndiceYConsultaPorIds() {
+        // Arrange
+        indiceBusqueda.indexar(1L, "Juan Pérez");
+        indiceBusqueda.indexar(2L, "María González");
+        indiceBusqueda.indexar(3L, "Juana Pérez");
+        indiceBusqueda.marcarListo();
+        Usuario usuario3 = new Usuario(3L, "Juana Pérez", "juana@email.com", "11111111-1", rolAdmin);
+        when(usuarioRepository.findByIdIn(List.of(1L, 3L))).thenReturn(List.of(usuario3, usuario1));
+
+        // Act
+        Pagina<Usuario> pagina = usuarioService.buscarPorTexto("juan pe", null, 10);
+
+        // Assert
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(1L, pagina.getContenido().get(0).getId());
+        assertEquals(3L, pagina.getContenido().get(1).getId());
+        assertNull(pagina.getSiguiente());
+        verify(usuarioRepository, never()).findByNombreStartingWithOrderByNombreAscIdAsc(anyString(), any());
+    }
+
+    @Test
+    void testBuscarPorTexto_SinIndiceUsaLaBaseDeDatos() {
+        // Arrange
+        when(usuarioRepository.findByNombreStartingWithOrderByNombreAscIdAsc("Juan", PageRequest.of(0, 2)))
+                .thenReturn(List.of(usuario1, usuario2));
+
+        // Act
+        Pagina<Usuario> pagina = usuarioService.buscarPorTexto("Juan", null, 1);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertEquals(1L, pagina.getSiguiente());
     }
 
     @Test
     void testBuscarPorRut_Existente() {
         // Arrange
-        when(usuarioRepository.findByRut("12345678-9")).thenReturn(usuario1);
+        when(usuarioRepository.findByRutNumero(12345678L)).thenReturn(usuario1);
 
         // Act
-        Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorRut("12345678-9");
+        Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorRut("12345678-5");
 
         // Assert
         assertTrue(usuarioEncontrado.isPresent());
-        assertEquals("12345678-9", usuarioEncontrado.get().getRut());
+        assertEquals("12345678-5", usuarioEncontrado.get().getRut());
         
-        verify(usuarioRepository, times(1)).findByRut("12345678-9");
+        verify(usuarioRepository, times(1)).findByRutNumero(12345678L);
+    }
+
+    @Test
+    void testBuscarPorRut_CualquierFormatoUsaLaMismaEntrada() {
+        // Arrange
+        when(usuarioRepository.findByRutNumero(12345678L)).thenReturn(usuario1);
+
+        // Act
+        usuarioService.buscarPorRut("12.345.678-5");
+        usuarioService.buscarPorRut("123456785");
+        Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorRut("12345678-5");
+
+        // Assert
+        assertTrue(usuarioEncontrado.isPresent());
+        verify(usuarioRepository, times(1)).findByRutNumero(12345678L);
+    }
+
+    @Test
+    void testBuscarPorRut_DigitoVerificadorInvalidoNoConsulta() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.buscarPorRut("12345678-9"));
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void testBuscarPorRut_DespuesDeBuscarPorIdUsaCache() {
+        // Arrange
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario1));
+
+        // Act
+        usuarioService.buscarPorId(1L);
+        Optional<Usuario> usuarioEncontrado = usuarioService.buscarPorRut("12345678-5");
+
+        // Assert
+        assertTrue(usuarioEncontrado.isPresent());
+        assertEquals(1L, usuarioEncontrado.get().getId());
+        verify(usuarioRepository, never()).findByRutNumero(anyLong());
+    }
+
+    @Test
+    void testGuardar_InvalidaCache() {
+        // Arrange
+        Usuario renombrado = new Usuario(1L, "Juan Pérez Soto", "juan@email.com", "12345678-5", rolAdmin);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario1), Optional.of(renombrado));
+        when(usuarioRepository.save(renombrado)).thenReturn(renombrado);
+        usuarioService.buscarPorId(1L);
+
+        // Act
+        usuarioService.guardar(renombrado);
+
+        // Assert
+        assertEquals("Juan Pérez Soto", usuarioService.buscarPorId(1L).get().getNombre());
+        verify(usuarioRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testBuscarPorIds_OrdenDeLaPeticionYNoEncontrados() {
+        // Arrange
+        when(usuarioRepository.findByIdIn(List.of(2L, 99L, 1L))).thenReturn(Arrays.asList(usuario1, usuario2));
+
+        // Act
+        BusquedaMultiple<Usuario> resultado = usuarioService.buscarPorIds(Arrays.asList(2L, 99L, 1L, 2L));
+
+        // Assert
+        assertEquals(2, resultado.getEncontrados().size());
+        assertEquals(2L, resultado.getEncontrados().get(0).getId());
+        assertEquals(1L, resultado.getEncontrados().get(1).getId());
+        assertEquals(List.of("99"), resultado.getNoEncontrados());
+        verify(usuarioRepository, times(1)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    void testBuscarPorRuts_SoloConsultaLosQueNoEstanEnCache() {
+        // Arrange
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario1));
+        when(usuarioRepository.findByRutNumeroIn(List.of(98765432L))).thenReturn(List.of(usuario2));
+        usuarioService.buscarPorId(1L);
+
+        // Act
+        BusquedaMultiple<Usuario> resultado = usuarioService.buscarPorRuts(List.of("12.345.678-5", "98765432-5"));
+
+        // Assert
+        assertEquals(2, resultado.getEncontrados().size());
+        assertTrue(resultado.getNoEncontrados().isEmpty());
+        verify(usuarioRepository, times(1)).findByRutNumeroIn(List.of(98765432L));
     }
 
     @Test
@@ -144,15 +349,262 @@ class UsuarioServiceTest {
         verify(usuarioRepository, times(1)).save(nuevoUsuario);
     }
 
+    @Test
+    void testBuscarResumenPorRut_UsaElNumero() {
+        // Arrange
+        UsuarioResumen resumen = new UsuarioResumen(1L, "Juan Pérez", "juan@email.com", "12345678-5", "ADMIN");
+        when(usuarioRepository.findResumenByRutNumero(12345678L)).thenReturn(Optional.of(resumen));
+
+        // Act
+        Optional<UsuarioResumen> resultado = usuarioService.buscarResumenPorRut("12.345.678-5");
+
+        // Assert
+        assertEquals(Optional.of(resumen), resultado);
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.buscarResumenPorRut("12345678-0"));
+        verify(usuarioRepository, never()).findByRutNumero(any());
+    }
+
+    @Test
+    void testActualizarParcial_SoloColumnasCambiadas() {
+        // Arrange
+        usuario1.setEmail("Nuevo@Email.com");
+        usuario1.setVersion(4L);
+        Map<String, Object> esperados = new LinkedHashMap<>();
+        esperados.put("email", "Nuevo@Email.com");
+        esperados.put("emailNormalizado", "nuevo@email.com");
+        esperados.put("rut", "12345678-5");
+        esperados.put("rutNumero", 12345678L);
+        when(usuarioRepository.actualizarVersionado(Usuario.class, 1L, 3L, esperados)).thenReturn(1);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario1));
+
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        cambios.put("email", "Nuevo@Email.com");
+        cambios.put("rut", "12.345.678-5");
+        cambios.put("version", 3);
+
+        // Act
+        Optional<Usuario> resultado = usuarioService.actualizarParcial(1L, 3L, cambios);
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertEquals(4L, resultado.get().getVersion());
+        verify(usuarioRepository, times(1)).actualizarVersionado(Usuario.class, 1L, 3L, esperados);
+        verify(usuarioCache, times(1)).invalidar(usuario1);
+        verify(usuarioRepository, never()).save(any());
+    }
+
+    @Test
+    void testActualizarParcial_InvalidaDespuesDelCommit() {
+        // Arrange
+        when(usuarioRepository.actualizarVersionado(eq(Usuario.class), eq(1L), eq(0L), anyMap())).thenReturn(1);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario1));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            usuarioService.actualizarParcial(1L, 0L, Map.of("nombre", "Juan Pérez"));
+            verify(usuarioCache, never()).invalidar(any(Usuario.class));
+            verify(indiceBusqueda, never()).indexar(any(), any());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // Assert
+            verify(usuarioCache, times(1)).invalidar(usuario1);
+            verify(indiceBusqueda, times(1)).indexar(1L, "Juan Pérez");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testActualizarParcial_VersionDesactualizada() {
+        // Arrange
+        when(usuarioRepository.actualizarVersionado(eq(Usuario.class), eq(1L), eq(2L), anyMap())).thenReturn(0);
+        when(usuarioRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> usuarioService.actualizarParcial(1L, 2L, Map.of("nombre", "Juan")));
+        verify(usuarioRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testActualizarParcial_Rechazos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.actualizarParcial(1L, 0L, Map.of("rutNumero", 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.actualizarParcial(1L, 0L, Map.of("nombre", " ")));
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.actualizarParcial(1L, 0L, Map.of("rut", "12345678-0")));
+        verify(usuarioRepository, never()).actualizarVersionado(any(), any(), any(), anyMap());
+    }
+
+    @Test
+    void testGuardarLote_RechazaDuplicadosYDatosFaltantes() {
+        // Arrange
+        Usuario nuevo = new Usuario(null, "Pedro Silva", "pedro@email.com", "11111111-1", rolAdmin);
+        Usuario rutRegistrado = new Usuario(null, "Otro Juan", "otro@email.com", "12345678-5", rolAdmin);
+        Usuario emailRepetido = new Usuario(null, "Pedro Soto", "Pedro@Email.com", "22222222-2", rolAdmin);
+        Usuario sinNombre = new Usuario(null, "", "sin@email.com", "33333333-3", rolAdmin);
+        Usuario rutInvalido = new Usuario(null, "Ana Rojas", "ana@email.com", "44444444-0", rolAdmin);
+        when(usuarioRepository.findRutNumerosExistentes(anyCollection())).thenReturn(List.of(12345678L));
+        when(usuarioRepository.findEmailsNormalizadosExistentes(anyCollection())).thenReturn(List.of());
+        when(usuarioRepository.saveAll(anyList())).thenAnswer(invocacion -> {
+            List<Usuario> parte = invocacion.getArgument(0);
+            parte.forEach(u -> u.setId(10L));
+            return parte;
+        });
+
+        // Act
+        ResultadoLote resultado = usuarioService.guardarLote(
+                Arrays.asList(nuevo, rutRegistrado, emailRepetido, sinNombre, rutInvalido));
+
+        // Assert
+        assertEquals(1, resultado.getCreados().size());
+        assertEquals(0, resultado.getCreados().get(0).getIndice());
+        assertEquals(10L, resultado.getCreados().get(0).getId());
+        assertEquals(4, resultado.getRechazados().size());
+        assertEquals(1, resultado.getRechazados().get(0).getIndice());
+        assertTrue(resultado.getRechazados().get(0).getMotivo().contains("RUT"));
+        assertEquals(2, resultado.getRechazados().get(1).getIndice());
+        assertTrue(resultado.getRechazados().get(1).getMotivo().contains("email"));
+        assertEquals(3, resultado.getRechazados().get(2).getIndice());
+        assertEquals(4, resultado.getRechazados().get(3).getIndice());
+        assertTrue(resultado.getRechazados().get(3).getMotivo().contains("no es válido"));
+        verify(usuarioRepository, times(1)).saveAll(List.of(nuevo));
+        verify(usuarioRepository, times(1)).flush();
+    }
+
+    @Test
+    void testGuardarLote_IndexaDespuesDelCommit() {
+        // Arrange
+        Usuario nuevo = new Usuario(null, "Pedro Silva", "pedro@email.com", "11111111-1", rolAdmin);
+        when(usuarioRepository.saveAll(anyList())).thenAnswer(invocacion -> {
+            List<Usuario> parte = invocacion.getArgument(0);
+            parte.forEach(u -> u.setId(10L));
+            return parte;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            usuarioService.guardarLote(List.of(nuevo));
+            verify(indiceBusqueda, never()).indexar(any(), any());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // Assert
+            verify(usuarioCache, times(1)).invalidar(nuevo);
+            verify(indiceBusqueda, times(1)).indexar(10L, "Pedro Silva");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGuardarLote_ExcedeLimite() {
+        // Arrange
+        List<Usuario> usuarios = Collections.nCopies(UsuarioService.LIMITE_LOTE + 1, usuario1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.guardarLote(usuarios));
+        verify(usuarioRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void testEliminar() {
         // Arrange
         Long idAEliminar = 1L;
+        when(usuarioRepository.eliminarPorId(idAEliminar)).thenReturn(1);
+        when(usuarioRepository.eliminarPorId(99L)).thenReturn(0);
+
+        // Act & Assert
+        assertTrue(usuarioService.eliminar(idAEliminar));
+        assertFalse(usuarioService.eliminar(99L));
+        verify(usuarioRepository, never()).deleteById(any());
+        verify(usuarioCache, times(1)).invalidar(idAEliminar);
+    }
+
+    @Test
+    void testEliminarLote() {
+        // Arrange
+        indiceBusqueda.indexar(1L, "Juan Pérez");
+        when(usuarioRepository.eliminarPorIds(anyCollection())).thenReturn(2);
+
+        // Act
+        int eliminados = usuarioService.eliminarLote(Arrays.asList(1L, 2L, 1L, null, 3L));
+
+        // Assert
+        assertEquals(2, eliminados);
+        verify(usuarioRepository, times(1)).eliminarPorIds(new LinkedHashSet<>(List.of(1L, 2L, 3L)));
+        assertEquals(0, indiceBusqueda.tamano());
+    }
+
+    @Test
+    void testEliminarLote_QuitaDelIndiceDespuesDelCommit() {
+        // Arrange
+        indiceBusqueda.indexar(1L, "Juan Pérez");
+        when(usuarioRepository.eliminarPorIds(anyCollection())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            usuarioService.eliminarLote(List.of(1L));
+            assertEquals(1, indiceBusqueda.tamano());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // Assert
+            assertEquals(0, indiceBusqueda.tamano());
+            verify(usuarioCache, times(1)).invalidar(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReasignarRol_VaciaElCacheDeUsuarios() {
+        // Arrange
+        Rol rol = new Rol(1L, "ADMIN", "Administrador");
+        usuarioCache.registrar(new Usuario(1L, "Juan Pérez", "juan@email.com", "12345678-5", rol), usuarioCache.generacion());
+        when(usuarioRepository.reasignarRol(1L, 2L)).thenReturn(4);
+        when(usuarioRepository.reasignarRol(3L, 2L)).thenReturn(0);
 
         // Act
-        usuarioService.eliminar(idAEliminar);
+        int sinUsuarios = usuarioService.reasignarRol(3L, 2L);
+        int reasignados = usuarioService.reasignarRol(1L, 2L);
 
         // Assert
-        verify(usuarioRepository, times(1)).deleteById(idAEliminar);
+        assertEquals(0, sinUsuarios);
+        assertEquals(4, reasignados);
+        verify(usuarioCache, times(1)).invalidarTodo();
+        assertNull(usuarioCache.obtenerSiPresente(UsuarioCache.TipoClave.ID, 1L));
+    }
+
+    @Test
+    void testReasignarRol_VaciaElCacheDespuesDelCommit() {
+        // Arrange
+        usuarioCache.registrar(usuario1, usuarioCache.generacion());
+        when(usuarioRepository.reasignarRol(1L, 2L)).thenReturn(2);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            usuarioService.reasignarRol(1L, 2L);
+            verify(usuarioCache, never()).invalidarTodo();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // Assert
+            verify(usuarioCache, times(1)).invalidarTodo();
+            assertNull(usuarioCache.obtenerSiPresente(UsuarioCache.TipoClave.ID, 1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEliminarLote_ExcedeLimite() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= UsuarioService.LIMITE_LOTE; i++) {
+            ids.add(i);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.eliminarLote(ids));
+        verify(usuarioRepository, never()).eliminarPorIds(anyCollection());
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.libreriaSanSebastian.userService;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Con la base H2 embebida en lugar de la MySQL del perfil dev, que no está disponible al compilar
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase
 class UserServiceApplicationTests {
 
 	@Test
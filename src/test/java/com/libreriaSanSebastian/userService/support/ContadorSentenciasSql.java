@@ -0,0 +1,33 @@
+package com.libreriaSanSebastian.userService.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementInspector de Hibernate que cuenta (y guarda) las sentencias SQL preparadas.
+ * Se registra con la propiedad {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class ContadorSentenciasSql implements StatementInspector {
+
+    private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.add(sql);
+        return sql;
+    }
+
+    public static void reiniciar() {
+        SENTENCIAS.clear();
+    }
+
+    public static int total() {
+        return SENTENCIAS.size();
+    }
+
+    public static List<String> sentencias() {
+        return List.copyOf(SENTENCIAS);
+    }
+}